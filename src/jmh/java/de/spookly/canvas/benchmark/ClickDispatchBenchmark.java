@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.MenuFunctionListener;
+import de.spookly.canvas.slot.ClickOptions;
+import de.spookly.canvas.slot.Slot;
+import de.spookly.canvas.type.ChestMenu;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the dispatch of inventory clicks through {@link MenuFunctionListener}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickDispatchBenchmark {
+
+    private static final int INERT_SLOT = 0;
+    private static final int HANDLER_SLOT = 1;
+
+    private MenuFunctionListener listener;
+    private Player player;
+    private InventoryClickEvent inertClick;
+    private InventoryClickEvent handlerClick;
+    private InventoryClickEvent shiftClick;
+
+    @Setup
+    public void setup() {
+        StandInServer.install();
+        listener = new MenuFunctionListener();
+
+        Menu menu = ChestMenu.builder(6).build();
+        for (Slot slot : menu) {
+            slot.setClickOptions(ClickOptions.ALLOW_ALL);
+            slot.setItem(new ItemStack(Material.STONE, 63));
+        }
+        menu.getSlot(INERT_SLOT).setClickOptions(ClickOptions.DENY_ALL);
+        menu.getSlot(HANDLER_SLOT).setClickHandler((p, click) -> click.setResult(Event.Result.DENY));
+
+        player = StandInServer.createPlayer("clicker");
+        menu.open(player);
+        InventoryView view = player.getOpenInventory();
+        view.getBottomInventory().setItem(0, new ItemStack(Material.STONE, 64));
+
+        inertClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, INERT_SLOT,
+                ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        handlerClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, HANDLER_SLOT,
+                ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        shiftClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, 54,
+                ClickType.SHIFT_LEFT, InventoryAction.MOVE_TO_OTHER_INVENTORY);
+    }
+
+    @Benchmark
+    public Event.Result clickInertSlot() {
+        return dispatch(inertClick);
+    }
+
+    @Benchmark
+    public Event.Result clickHandlerSlot() {
+        return dispatch(handlerClick);
+    }
+
+    @Benchmark
+    public Event.Result shiftClickIntoMenu() {
+        return dispatch(shiftClick);
+    }
+
+    private Event.Result dispatch(InventoryClickEvent event) {
+        event.setResult(Event.Result.DEFAULT);
+        listener.handleGuiClick(event);
+        return event.getResult();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.mask.BinaryMask;
+import de.spookly.canvas.mask.Mask;
+import de.spookly.canvas.mask.RecipeMask;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.template.StaticItemTemplate;
+import de.spookly.canvas.type.ChestMenu;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures slot lookups and applications of masks.
+ *
+ * <p>Masks are applied to a menu that a player has open, so that every
+ * application renders the affected slots to the inventory of the viewer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskBenchmark {
+
+    private Menu menu;
+    private Mask border;
+    private Mask recipe;
+
+    @Setup
+    public void setup() {
+        StandInServer.install();
+        ItemStackTemplate first = new StaticItemTemplate(new ItemStack(Material.STONE));
+        ItemStackTemplate second = new StaticItemTemplate(new ItemStack(Material.DIAMOND));
+
+        menu = ChestMenu.builder(6).build();
+        menu.open(StandInServer.createPlayer("viewer"));
+        border = BinaryMask.builder(menu)
+                .item(first)
+                .pattern("111111111")
+                .pattern("100000001")
+                .pattern("100000001")
+                .pattern("100000001")
+                .pattern("100000001")
+                .pattern("111111111")
+                .build();
+        recipe = RecipeMask.builder(menu)
+                .item('a', first)
+                .item('b', second)
+                .pattern("ababababa")
+                .pattern("babababab")
+                .pattern("ababababa")
+                .pattern("babababab")
+                .pattern("ababababa")
+                .pattern("babababab")
+                .build();
+    }
+
+    @Benchmark
+    public int binaryMaskContains() {
+        int count = 0;
+        for (int i = 0; i < 54; i++) {
+            if (border.contains(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void binaryMaskApply() {
+        border.apply(menu);
+    }
+
+    @Benchmark
+    public void recipeMaskApply() {
+        recipe.apply(menu);
+    }
+}
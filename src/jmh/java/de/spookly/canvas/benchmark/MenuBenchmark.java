@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.template.StaticItemTemplate;
+import de.spookly.canvas.type.ChestMenu;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures opening, updating and modifying a full chest menu that is
+ * being viewed by a varying amount of players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int viewers;
+
+    private Menu menu;
+    private Player opener;
+    private ItemStackTemplate first;
+    private ItemStackTemplate second;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        StandInServer.install();
+        first = new StaticItemTemplate(new ItemStack(Material.STONE));
+        second = new StaticItemTemplate(new ItemStack(Material.DIAMOND));
+
+        menu = ChestMenu.builder(6).build();
+        menu.forEach(slot -> slot.setItemTemplate(first));
+        menu.getSlot(0).setItemTemplate(player -> toggle ? first.getItem(player) : second.getItem(player));
+
+        for (int i = 0; i < viewers; i++) {
+            menu.open(StandInServer.createPlayer("viewer" + i));
+        }
+        opener = StandInServer.createPlayer("opener");
+    }
+
+    @Benchmark
+    public void openAndClose() {
+        menu.open(opener);
+        menu.close(opener);
+    }
+
+    @Benchmark
+    public void updateUnchanged() {
+        menu.update();
+    }
+
+    @Benchmark
+    public void updateSingleSlotChanged() {
+        toggle = !toggle;
+        menu.update();
+    }
+
+    @Benchmark
+    public void setItemTemplateFanOut() {
+        toggle = !toggle;
+        ItemStackTemplate template = toggle ? first : second;
+        for (int i = 1; i < 54; i++) {
+            menu.getSlot(i).setItemTemplate(template);
+        }
+    }
+}
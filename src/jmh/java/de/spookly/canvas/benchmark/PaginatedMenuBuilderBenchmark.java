@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.mask.BinaryMask;
+import de.spookly.canvas.mask.Mask;
+import de.spookly.canvas.paginate.MultiSectionPaginatedMenuBuilder;
+import de.spookly.canvas.paginate.PaginatedMenuBuilder;
+import de.spookly.canvas.slot.SlotSettings;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.type.ChestMenu;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the cost of building paginated menus scales with the
+ * amount of paginated items.
+ *
+ * <p>Before measuring, the pages built by both builders are compared to
+ * the pages produced by the original algorithm, which removed items from
+ * the front of a list one at a time, so that a faster build cannot
+ * silently change which item ends up in which slot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginatedMenuBuilderBenchmark {
+
+    private static final ItemStackTemplate TEMPLATE = player -> null;
+
+    @Param({"1000", "10000", "100000", "250000"})
+    public int items;
+
+    private PaginatedMenuBuilder builder;
+    private MultiSectionPaginatedMenuBuilder multiSectionBuilder;
+    private Mask itemSlots;
+
+    @Setup
+    public void setup() {
+        Menu.Builder<?> pageBuilder = ChestMenu.builder(6);
+        itemSlots = BinaryMask.builder(pageBuilder.getDimensions())
+                .pattern("111111111")
+                .pattern("111111111")
+                .pattern("111111111")
+                .pattern("111111111")
+                .pattern("111111111")
+                .build();
+
+        builder = PaginatedMenuBuilder.builder(pageBuilder)
+                .slots(itemSlots)
+                .previousButtonSlots(45)
+                .nextButtonSlots(53)
+                .nextButton(TEMPLATE)
+                .previousButton(TEMPLATE);
+        multiSectionBuilder = MultiSectionPaginatedMenuBuilder.builder(pageBuilder)
+                .slots('a', itemSlots)
+                .previousButtonSlots(45)
+                .nextButtonSlots(53)
+                .nextButton(TEMPLATE)
+                .previousButton(TEMPLATE);
+
+        for (int i = 0; i < items; i++) {
+            SlotSettings settings = SlotSettings.builder().itemTemplate(new IndexedTemplate(i)).build();
+            builder.addItem(settings);
+            multiSectionBuilder.addItem('a', settings);
+        }
+
+        List<List<Integer>> expected = legacyLayout(pageBuilder.getDimensions().getArea());
+        verify("build", builder.build(), expected);
+        verify("buildMultiSection", multiSectionBuilder.build(), expected);
+    }
+
+    /* Computes the item index placed in each slot of each page by the original build algorithm */
+    private List<List<Integer>> legacyLayout(int area) {
+        Deque<Integer> remaining = new ArrayDeque<>(items);
+        for (int i = 0; i < items; i++) {
+            remaining.add(i);
+        }
+
+        List<List<Integer>> pages = new ArrayList<>();
+        do {
+            List<Integer> page = new ArrayList<>();
+            for (int slot = 0; slot < area; slot++) {
+                page.add(null);
+            }
+            PrimitiveIterator.OfInt slotIterator = itemSlots.slotIterator();
+            while (!remaining.isEmpty() && slotIterator.hasNext()) {
+                int slotIndex = slotIterator.nextInt();
+                if (area > slotIndex) {
+                    page.set(slotIndex, remaining.poll());
+                }
+            }
+            pages.add(page);
+        } while (!remaining.isEmpty());
+        return pages;
+    }
+
+    /* Fails the benchmark if built pages differ from the pages of the original algorithm */
+    private void verify(String name, List<Menu> pages, List<List<Integer>> expected) {
+        if (pages.size() != expected.size()) {
+            throw new IllegalStateException(name + " built " + pages.size() + " pages, expected " + expected.size());
+        }
+        for (int page = 0; page < pages.size(); page++) {
+            List<Integer> expectedSlots = expected.get(page);
+            for (int slot = 0; slot < expectedSlots.size(); slot++) {
+                if (!itemSlots.contains(slot)) {
+                    continue;
+                }
+                ItemStackTemplate template = pages.get(page).getSlot(slot).getItemTemplate();
+                Integer actual = template instanceof IndexedTemplate ? ((IndexedTemplate) template).index : null;
+                if (!Objects.equals(actual, expectedSlots.get(slot))) {
+                    throw new IllegalStateException(name + " placed item " + actual + " in slot " + slot
+                            + " of page " + page + ", expected " + expectedSlots.get(slot));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Menu> build() {
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<Menu> buildMultiSection() {
+        return multiSectionBuilder.build();
+    }
+
+    /* A template remembering the position of its item in the paginated items */
+    private static final class IndexedTemplate implements ItemStackTemplate {
+
+        private final int index;
+
+        private IndexedTemplate(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public ItemStack getItem(Player player) {
+            return null;
+        }
+    }
+}
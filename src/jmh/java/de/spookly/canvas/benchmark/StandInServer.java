@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A minimal in-memory stand-in for the Bukkit server used by benchmarks.
+ *
+ * <p>Only the parts of the API that menus interact with are implemented:
+ * inventories are plain item arrays, players track the inventory they have
+ * open and no packets are ever sent. Any other method returns a default value.
+ */
+public final class StandInServer {
+
+    private static boolean installed;
+
+    private StandInServer() {
+    }
+
+    /**
+     * Installs the stand-in server as the Bukkit server if it has not
+     * been installed yet.
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        ItemFactory itemFactory = proxy(ItemFactory.class, (proxy, method, args) -> {
+            if (method.getName().equals("equals") && args != null && args.length == 2) {
+                return Objects.equals(args[0], args[1]);
+            }
+            return identity(proxy, method.getName(), args, null);
+        });
+        Logger logger = Logger.getLogger("StandInServer");
+        Server server = proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createInventory":
+                    InventoryHolder holder = (InventoryHolder) args[0];
+                    if (args[1] instanceof InventoryType) {
+                        InventoryType type = (InventoryType) args[1];
+                        return createInventory(holder, type, type.getDefaultSize());
+                    }
+                    return createInventory(holder, InventoryType.CHEST, (Integer) args[1]);
+                case "getItemFactory":
+                    return itemFactory;
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return identity(proxy, method.getName(), args, method.getReturnType());
+            }
+        });
+        Bukkit.setServer(server);
+        installed = true;
+    }
+
+    /**
+     * Creates a new stand-in player that is not viewing any inventory.
+     *
+     * @param name player name
+     * @return player
+     */
+    public static Player createPlayer(String name) {
+        UUID uniqueId = UUID.nameUUIDFromBytes(name.getBytes());
+        Inventory[] open = new Inventory[2];
+        InventoryView[] view = new InventoryView[1];
+        Player player = proxy(Player.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getUniqueId":
+                    return uniqueId;
+                case "isOnline":
+                    return true;
+                case "getOpenInventory":
+                    return view[0];
+                case "openInventory":
+                    open[0] = (Inventory) args[0];
+                    return view[0];
+                case "closeInventory":
+                    open[0] = open[1];
+                    return null;
+                default:
+                    return identity(proxy, method.getName(), args, method.getReturnType());
+            }
+        });
+        open[1] = createInventory(null, InventoryType.CRAFTING, 5);
+        open[0] = open[1];
+        view[0] = createView(player, open);
+        return player;
+    }
+
+    /* Creates an inventory backed by an item array */
+    private static Inventory createInventory(InventoryHolder holder, InventoryType type, int size) {
+        ItemStack[] contents = new ItemStack[size];
+        List<HumanEntity> viewers = new ArrayList<>();
+        return proxy(Inventory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getSize":
+                    return contents.length;
+                case "getItem":
+                    return contents[(Integer) args[0]];
+                case "setItem":
+                    contents[(Integer) args[0]] = (ItemStack) args[1];
+                    return null;
+                case "getContents":
+                case "getStorageContents":
+                    return Arrays.copyOf(contents, contents.length);
+                case "setContents":
+                case "setStorageContents":
+                    ItemStack[] items = (ItemStack[]) args[0];
+                    Arrays.fill(contents, null);
+                    System.arraycopy(items, 0, contents, 0, Math.min(items.length, contents.length));
+                    return null;
+                case "firstEmpty":
+                    for (int i = 0; i < contents.length; i++) {
+                        if (contents[i] == null) {
+                            return i;
+                        }
+                    }
+                    return -1;
+                case "getHolder":
+                    return holder;
+                case "getType":
+                    return type;
+                case "getViewers":
+                    return viewers;
+                default:
+                    return identity(proxy, method.getName(), args, method.getReturnType());
+            }
+        });
+    }
+
+    /* Creates the view of a player, open[0] being the top and open[1] the bottom inventory */
+    private static InventoryView createView(Player player, Inventory[] open) {
+        return proxy(InventoryView.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getTopInventory":
+                    return open[0];
+                case "getBottomInventory":
+                    return open[1];
+                case "getPlayer":
+                    return player;
+                case "getType":
+                    return open[0].getType();
+                case "countSlots":
+                    return open[0].getSize() + open[1].getSize();
+                case "getInventory":
+                    return (Integer) args[0] < open[0].getSize() ? open[0] : open[1];
+                case "getItem":
+                    int slot = (Integer) args[0];
+                    return slot < open[0].getSize() ? open[0].getItem(slot) : open[1].getItem(slot - open[0].getSize());
+                case "convertSlot":
+                    int rawSlot = (Integer) args[0];
+                    return rawSlot < open[0].getSize() ? rawSlot : rawSlot - open[0].getSize();
+                default:
+                    return identity(proxy, method.getName(), args, method.getReturnType());
+            }
+        });
+    }
+
+    /* Implements identity based Object methods and returns default values for everything else */
+    private static Object identity(Object proxy, String method, Object[] args, Class<?> returnType) {
+        switch (method) {
+            case "equals":
+                return args != null && args.length == 1 && proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "StandIn@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                return defaultValue(returnType);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == null || !type.isPrimitive() || type == void.class) {
+            return type == String.class ? "" : null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StandInServer.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A limit on how fast players may click in menus.
+ *
+ * <p>Every player is given a bucket of tokens. Each click takes a token
+ * from the bucket, and clicks are denied while the bucket is empty.
+ * Tokens are refilled at a fixed rate up to the burst size of the
+ * throttle. The bucket is shared by all menus and kept when a player
+ * closes a menu, so buttons opening another menu do not grant a fresh
+ * burst of clicks. It is only forgotten once the player leaves.
+ *
+ * <p>Apply a throttle by registering a listener created with
+ * {@link MenuFunctionListener#MenuFunctionListener(ClickThrottle)}.
+ */
+public class ClickThrottle {
+
+    private final int burst;
+    private final long nanosPerToken;
+    private final Map<UUID, Bucket> buckets = new HashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    protected ClickThrottle(int burst, long nanosPerToken) {
+        this.burst = burst;
+        this.nanosPerToken = nanosPerToken;
+    }
+
+    /**
+     * Takes a token from the bucket of a player for a click in a menu.
+     *
+     * @param viewer player clicking
+     * @return true if the click is allowed, false if it must be denied
+     */
+    public boolean tryAcquire(Player viewer) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(viewer.getUniqueId());
+        if (bucket == null) {
+            bucket = new Bucket(now);
+            buckets.put(viewer.getUniqueId(), bucket);
+        } else {
+            bucket.refill(now);
+        }
+
+        if (bucket.tokens > 0) {
+            bucket.tokens--;
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Forgets the bucket of a player, allowing the player a full burst
+     * of clicks on the next click. This is called once a player leaves
+     * the server.
+     *
+     * @param viewer player
+     */
+    public void reset(Player viewer) {
+        buckets.remove(viewer.getUniqueId());
+    }
+
+    /**
+     * Returns the maximum amount of clicks a player can perform at once.
+     *
+     * @return burst size
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Returns the amount of clicks that were allowed by this throttle.
+     *
+     * @return allowed click count
+     */
+    public long getAllowedClicks() {
+        return allowed.sum();
+    }
+
+    /**
+     * Returns the amount of clicks that were denied by this throttle.
+     *
+     * @return rejected click count
+     */
+    public long getRejectedClicks() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns a new builder. By default, throttles allow a burst of 10
+     * clicks that refills at a rate of 5 clicks per second.
+     *
+     * @return throttle builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /* The tokens of a single player */
+    private final class Bucket {
+
+        private int tokens;
+        private long lastRefill;
+
+        private Bucket(long now) {
+            this.tokens = burst;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now) {
+            long added = (now - lastRefill) / nanosPerToken;
+            if (added > 0) {
+                tokens = (int) Math.min(burst, tokens + added);
+                lastRefill = tokens == burst ? now : lastRefill + added * nanosPerToken;
+            }
+        }
+    }
+
+    /**
+     * A builder to create a ClickThrottle.
+     */
+    public static class Builder {
+
+        private int burst = 10;
+        private long nanosPerToken = Duration.ofSeconds(1).toNanos() / 5;
+
+        protected Builder() {
+
+        }
+
+        /**
+         * Sets the maximum amount of clicks a player can perform at once.
+         *
+         * @param burst burst size
+         * @return fluent pattern
+         * @throws IllegalArgumentException if the burst size is less than 1
+         */
+        public Builder burst(int burst) {
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst must be at least 1");
+            }
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Sets the rate at which clicks become available again after
+         * they have been used.
+         *
+         * @param clicks amount of clicks that become available per period
+         * @param period refill period
+         * @return fluent pattern
+         * @throws IllegalArgumentException if the rate is not positive
+         */
+        public Builder refill(int clicks, Duration period) {
+            if (clicks < 1 || period.isNegative() || period.toNanos() / clicks < 1) {
+                throw new IllegalArgumentException("refill rate must be positive");
+            }
+            this.nanosPerToken = period.toNanos() / clicks;
+            return this;
+        }
+
+        /**
+         * Builds the throttle from the given data.
+         *
+         * @return click throttle
+         */
+        public ClickThrottle build() {
+            return new ClickThrottle(burst, nanosPerToken);
+        }
+    }
+}
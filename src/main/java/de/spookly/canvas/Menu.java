@@ -26,14 +26,17 @@ package de.spookly.canvas;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import de.spookly.canvas.mask.Mask;
 import de.spookly.canvas.slot.Slot;
+import de.spookly.canvas.template.ItemStackTemplate;
 
 import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.inventory.ItemStack;
 
 /**
  * A menu represents an interactive interface for Players backed by instances of
@@ -99,7 +102,25 @@ public interface Menu extends Iterable<Slot> {
      */
     void open(Player viewer);
 
+    /**
+     * Sets the title of the menu.
+     *
+     * <p>If the menu is open, the new title is sent to all viewers on the
+     * next server tick without reopening the menu. Title changes made
+     * within the same tick are sent only once, so titles can be animated
+     * with timers.
+     *
+     * @see de.spookly.canvas.type.MenuUpdateScheduler
+     *
+     * @param title new title
+     */
     void title(Component title);
+
+    /**
+     * Returns the title of the menu.
+     *
+     * @return menu title
+     */
     Component getTitle();
 
     /**
@@ -120,10 +141,47 @@ public interface Menu extends Iterable<Slot> {
     /**
      * Re-renders the menu for all viewers.
      *
+     * <p>Like {@link #update(Player)}, this evaluates the item template
+     * of every slot.
+     *
      * @see #update(Player)
      */
     void update();
 
+    /**
+     * Requests the menu to be re-rendered for all viewers on the next
+     * server tick.
+     *
+     * <p>Unlike {@link #update()}, the menu is not rendered right away.
+     * All requests made for the menu until it is rendered are coalesced
+     * into a single update. This method may be called from any thread.
+     *
+     * <p>Menus that do not coalesce updates are updated right away by
+     * default, in which case this method must be called on the main
+     * server thread.
+     *
+     * @see de.spookly.canvas.type.MenuUpdateScheduler
+     */
+    default void requestUpdate() {
+        update();
+    }
+
+    /**
+     * Re-renders all slots depending on a key for all viewers on the
+     * next server tick. Only slots that depend on the key are rendered.
+     *
+     * <p>This method must be called on the main server thread.
+     *
+     * <p>Menus that do not track slot dependencies re-render all slots
+     * right away by default.
+     *
+     * @param key dependency key
+     * @see Slot#dependOn(Object)
+     */
+    default void invalidate(Object key) {
+        update();
+    }
+
     /**
      * Re-renders the menu for the player.
      *
@@ -131,11 +189,34 @@ public interface Menu extends Iterable<Slot> {
      * {@link Slot} has a non-null item then any changes
      * for that slot will be overwritten.
      *
+     * <p>Only slots whose rendered item differs from the item
+     * last sent to the player are written to the inventory.
+     *
+     * <p>Note: the item template of every slot is evaluated, regardless
+     * of whether the slot was {@link Slot#invalidate() invalidated}. To
+     * only render invalidated slots, use {@link Slot#invalidate()} or
+     * {@link #invalidate(Object)} instead, which are performed on the
+     * next server tick.
+     *
      * @param viewer player viewing inventory
      * @throws IllegalStateException If player is not viewing the menu
      */
     void update(Player viewer) throws IllegalStateException;
 
+    /**
+     * Applies multiple changes to the menu as a single batch.
+     *
+     * <p>Item changes made to slots while the batch is running are not
+     * rendered immediately. Instead, every changed slot is rendered to
+     * all viewers once the batch completes. Batches may be nested, in
+     * which case changes are rendered when the outermost batch completes.
+     *
+     * @param changes changes to apply to the menu
+     */
+    default void batch(Consumer<Menu> changes) {
+        changes.accept(this);
+    }
+
     /**
      * Returns all slots that belong to this menu.
      *
@@ -174,6 +255,57 @@ public interface Menu extends Iterable<Slot> {
      */
     Slot getSlot(int row, int column);
 
+    /**
+     * Sets static items for all slots of the menu at once.
+     *
+     * <p>The item at each index of the array is set for the slot at the
+     * same index. Slots beyond the length of the array are cleared. Viewers
+     * are synchronized once after all items are set.
+     *
+     * @param contents items to set, null entries clear a slot
+     * @throws IllegalArgumentException if the array is larger than the menu
+     */
+    default void setContents(ItemStack[] contents) {
+        int size = getDimensions().getArea();
+        if (contents.length > size) {
+            throw new IllegalArgumentException("contents must not exceed menu size of " + size);
+        }
+
+        batch(menu -> {
+            for (int index = 0; index < size; index++) {
+                ItemStack item = index < contents.length ? contents[index] : null;
+                if (item == null) {
+                    menu.getSlot(index).setItemTemplate(null);
+                } else {
+                    menu.getSlot(index).setItem(item);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets item templates for all slots of the menu at once.
+     *
+     * <p>The template at each index of the array is set for the slot at the
+     * same index. Slots beyond the length of the array are cleared. Viewers
+     * are synchronized once after all templates are set.
+     *
+     * @param templates templates to set, null entries clear a slot
+     * @throws IllegalArgumentException if the array is larger than the menu
+     */
+    default void setTemplates(ItemStackTemplate[] templates) {
+        int size = getDimensions().getArea();
+        if (templates.length > size) {
+            throw new IllegalArgumentException("templates must not exceed menu size of " + size);
+        }
+
+        batch(menu -> {
+            for (int index = 0; index < size; index++) {
+                menu.getSlot(index).setItemTemplate(index < templates.length ? templates[index] : null);
+            }
+        });
+    }
+
     /**
      * Clears out the whole Menu
      */
@@ -309,6 +441,19 @@ public interface Menu extends Iterable<Slot> {
      */
     class Dimension {
 
+        // Canonical instances for the dimensions of all vanilla inventories
+        private static final int MAX_CACHED_ROWS = 6;
+        private static final int MAX_CACHED_COLUMNS = 9;
+        private static final Dimension[] CACHED = new Dimension[MAX_CACHED_ROWS * MAX_CACHED_COLUMNS];
+
+        static {
+            for (int rows = 1; rows <= MAX_CACHED_ROWS; rows++) {
+                for (int columns = 1; columns <= MAX_CACHED_COLUMNS; columns++) {
+                    CACHED[(rows - 1) * MAX_CACHED_COLUMNS + columns - 1] = new Dimension(rows, columns);
+                }
+            }
+        }
+
         private final int rows;
         private final int columns;
 
@@ -317,6 +462,23 @@ public interface Menu extends Iterable<Slot> {
             this.columns = columns;
         }
 
+        /**
+         * Returns the dimensions with a number of rows and columns.
+         *
+         * <p>Dimensions of up to 6 rows and 9 columns are cached, so
+         * that the same instance is returned for equal dimensions.
+         *
+         * @param rows The row count
+         * @param columns The column count
+         * @return The dimensions
+         */
+        public static Dimension of(int rows, int columns) {
+            if (rows >= 1 && rows <= MAX_CACHED_ROWS && columns >= 1 && columns <= MAX_CACHED_COLUMNS) {
+                return CACHED[(rows - 1) * MAX_CACHED_COLUMNS + columns - 1];
+            }
+            return new Dimension(rows, columns);
+        }
+
         /**
          * Returns the number of rows in the Menu
          *
@@ -346,7 +508,7 @@ public interface Menu extends Iterable<Slot> {
 
         @Override
         public int hashCode() {
-            return rows * 31 + columns * 31;
+            return rows * 31 + columns;
         }
 
         @Override
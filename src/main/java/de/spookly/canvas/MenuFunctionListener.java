@@ -41,6 +41,7 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryInteractEvent;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
@@ -55,6 +56,25 @@ import de.spookly.canvas.type.MenuHolder;
  */
 public final class MenuFunctionListener implements Listener {
 
+    private final ClickThrottle throttle;
+
+    /**
+     * Creates a listener that does not limit how fast players may click.
+     */
+    public MenuFunctionListener() {
+        this(null);
+    }
+
+    /**
+     * Creates a listener that denies clicks exceeding the limits of a
+     * throttle before they are passed to any menu.
+     *
+     * @param throttle click throttle, or null to not limit clicks
+     */
+    public MenuFunctionListener(ClickThrottle throttle) {
+        this.throttle = throttle;
+    }
+
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGH)
     public void handleGuiDrag(InventoryDragEvent event) {
         InventoryView view = event.getView();
@@ -63,6 +83,10 @@ public final class MenuFunctionListener implements Listener {
         // We are only processing drags that affect menus
         if (top.getHolder() instanceof MenuHolder) {
             Menu menu = ((MenuHolder) top.getHolder()).getMenu();
+            if (affectsMenu(event, top) && isThrottled(event)) {
+                return;
+            }
+
             ClickType clickType = event.getType() == DragType.EVEN ? ClickType.LEFT : ClickType.RIGHT;
             
             // Go through each slot affected and the item being inserted and pass the 
@@ -96,6 +120,9 @@ public final class MenuFunctionListener implements Listener {
             Menu menu = ((MenuHolder) top.getHolder()).getMenu();
             Inventory clicked = event.getClickedInventory();
             InventoryAction action = event.getAction();
+            if (affectsMenu(action, clicked, top) && isThrottled(event)) {
+                return;
+            }
             
             // Need to find the target slot
             switch (action) {
@@ -169,55 +196,87 @@ public final class MenuFunctionListener implements Listener {
                     }
                     
                     ItemStack moving = event.getCurrentItem();
-                    int amountLeft = moving.getAmount();
-                    int nextAvailableSlot = getNextAvailableSlot(top, moving);
-                    
-                    // We iterate over the next available merge slots while the item is being merged (amount > 0)
-                    // to pass the event to all of the slots that will be effected. Once the event is denied,
-                    // the item is fully taken care of by all slots, or the inventory runs out of space we are
-                    // safe to break out of the loop.
-                    while (nextAvailableSlot > -1 && amountLeft > 0 && event.getResult() != Event.Result.DENY) {
-                        ItemStack inSlot = top.getItem(nextAvailableSlot);
-
-                        int maxAvailable; // Track how much we will be adding to the stack
-
-                        if (inSlot == null || inSlot.getType() == Material.AIR) {
-                            maxAvailable = moving.getMaxStackSize();
-                        } else {
-                            maxAvailable = inSlot.getMaxStackSize() - inSlot.getAmount();
-                        }
+                    ItemStack[] contents = top.getContents();
+                    int[] targetSlots = new int[contents.length];
+                    int[] targetAmounts = new int[contents.length];
+                    int targets = planMerge(contents, moving, targetSlots, targetAmounts);
 
-                        maxAvailable = Math.min(maxAvailable, amountLeft);
-                        amountLeft -= maxAvailable;
-
-                        ItemStack adding = new ItemStack(moving);
-                        adding.setAmount(maxAvailable);
-                        passClickToSlot(event, event.getAction(), event.getClick(), event.getClickedInventory(), menu, nextAvailableSlot, adding);
-                        nextAvailableSlot = getNextAvailableSlot(top, moving, nextAvailableSlot + 1);
+                    // We pass the event to all of the slots that the item will be merged into. Once the
+                    // event is denied we are safe to break out of the loop.
+                    for (int target = 0; target < targets && event.getResult() != Event.Result.DENY; target++) {
+                        ItemStack adding = moving.asQuantity(targetAmounts[target]);
+                        passClickToSlot(event, event.getAction(), event.getClick(), event.getClickedInventory(), menu, targetSlots[target], adding);
                     }
                     break;
             }
         }
     }
-    
-    // Gets the next available slot that an item can be merged into
-    private int getNextAvailableSlot(Inventory inventory, ItemStack moving) {
-        return getNextAvailableSlot(inventory, moving, 0);
+
+    // Returns true if a drag places items in the menu, rather than only the inventory of the player
+    private boolean affectsMenu(InventoryDragEvent event, Inventory top) {
+        for (int rawSlot : event.getRawSlots()) {
+            if (rawSlot < top.getSize()) {
+                return true;
+            }
+        }
+        return false;
     }
-    
-    // Gets the next available slot that an item can be merged into, after a specific slot
-    private int getNextAvailableSlot(Inventory inventory, ItemStack moving, int startPosition) {
-        // Start at the starting position and iterate through every slot in the inventory. We search
-        // the inventory for the target slot that is related to the item being moved.
-        for (int targetSlot = startPosition ; targetSlot < inventory.getSize() ; targetSlot++) {
-            ItemStack inSlot = inventory.getItem(targetSlot);
-            if (moving.isSimilar(inSlot) && inSlot.getAmount() < inSlot.getMaxStackSize()) {
-                return targetSlot;
+
+    // Returns true if a click may affect the menu, rather than only the inventory of the player
+    private boolean affectsMenu(InventoryAction action, Inventory clicked, Inventory top) {
+        switch (action) {
+            case UNKNOWN:
+            case NOTHING:
+                return false;
+            // Moves from the inventory of the player into the menu, and collecting
+            // items to the cursor, may take or place items in the menu
+            case MOVE_TO_OTHER_INVENTORY:
+            case COLLECT_TO_CURSOR:
+                return true;
+            default:
+                return clicked == top;
+        }
+    }
+
+    // Denies an interaction if the player exceeded the click limits of the throttle
+    private boolean isThrottled(InventoryInteractEvent event) {
+        if (throttle == null || throttle.tryAcquire((Player) event.getWhoClicked())) {
+            return false;
+        }
+        event.setResult(Event.Result.DENY);
+        event.setCancelled(true);
+        return true;
+    }
+
+    // Plans how an item is merged into the contents of an inventory in a single pass. Similar
+    // stacks that are not full are filled first, followed by empty slots, both in slot order.
+    // The target slots and the amount added to each are written to the given arrays and the
+    // number of targets is returned.
+    private int planMerge(ItemStack[] contents, ItemStack moving, int[] targetSlots, int[] targetAmounts) {
+        int amountLeft = moving.getAmount();
+        int targets = 0;
+        int[] emptySlots = new int[contents.length];
+        int empty = 0;
+
+        for (int slot = 0 ; slot < contents.length && amountLeft > 0 ; slot++) {
+            ItemStack inSlot = contents[slot];
+            if (inSlot == null || inSlot.getType() == Material.AIR) {
+                emptySlots[empty++] = slot;
+            } else if (inSlot.getAmount() < inSlot.getMaxStackSize() && moving.isSimilar(inSlot)) {
+                int adding = Math.min(inSlot.getMaxStackSize() - inSlot.getAmount(), amountLeft);
+                amountLeft -= adding;
+                targetSlots[targets] = slot;
+                targetAmounts[targets++] = adding;
             }
         }
-        
-        // Default return value of -1 to indicate no similar slot found.
-        return inventory.firstEmpty();
+
+        for (int i = 0 ; i < empty && amountLeft > 0 ; i++) {
+            int adding = Math.min(moving.getMaxStackSize(), amountLeft);
+            amountLeft -= adding;
+            targetSlots[targets] = emptySlots[i];
+            targetAmounts[targets++] = adding;
+        }
+        return targets;
     }
     
     // Passes an inventory click event to a menu at a given slot
@@ -234,12 +293,19 @@ public final class MenuFunctionListener implements Listener {
     // Handles events where a slot was clicked inside an inventory
     private void passClickToSlot(InventoryInteractEvent handle, InventoryAction inventoryAction, ClickType clickType,
                                  Inventory clicked, Menu menu, int slotIndex, ItemStack addingItem) {
+        // Slots without a click handler that deny all clicks are the most common, so we
+        // deny the click right away without processing it any further
+        if (menu instanceof AbstractMenu && !((AbstractMenu) menu).isInteractive(slotIndex)) {
+            handle.setResult(Event.Result.DENY);
+            return;
+        }
+
         // Fetch the slot that was clicked and process the information here
         Slot slot = menu.getSlot(slotIndex);
         ClickOptions options = slot.getClickOptions();
 
         // Check the options of the slot and set the result if the click is not allowed
-        if (!options.isAllowedClickType(clickType) || !options.isAllowedAction(inventoryAction)) {
+        if (!options.isAllowed(inventoryAction, clickType)) {
             handle.setResult(Event.Result.DENY);
         }
 
@@ -253,6 +319,12 @@ public final class MenuFunctionListener implements Listener {
 
         // Complete the handling of the event by setting the result of the click
         handle.setResult(clickInformation.getResult());
+
+        // The slot contents may be changed by the click if it was not denied, so the
+        // last rendered item can no longer be trusted
+        if (handle.getResult() != Event.Result.DENY) {
+            ((MenuHolder) handle.getView().getTopInventory().getHolder()).invalidate(slotIndex);
+        }
     }
     
     @EventHandler(ignoreCancelled = true)
@@ -292,4 +364,11 @@ public final class MenuFunctionListener implements Listener {
             ((AbstractMenu) menu).closedByPlayer((Player) event.getPlayer(), true);
         }
     }
+
+    @EventHandler
+    public void forgetClickThrottle(PlayerQuitEvent event) {
+        if (throttle != null) {
+            throttle.reset(event.getPlayer());
+        }
+    }
 }
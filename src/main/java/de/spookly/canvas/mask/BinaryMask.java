@@ -31,9 +31,9 @@ import de.spookly.canvas.template.ItemStackTemplate;
 import de.spookly.canvas.template.StaticItemTemplate;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
 
 /**
  * A mask that only considers values {@code 0} and {@code 1} in the
@@ -46,18 +46,36 @@ import java.util.List;
 public class BinaryMask implements Mask {
 
     private final Menu.Dimension dimension;
-    private List<Integer> mask;
+    private final SlotBits mask;
+    private List<Integer> slots;
     private SlotSettings settings;
 
     protected BinaryMask(Menu.Dimension dimension, List<Integer> mask, SlotSettings settings) {
+        this(dimension, SlotBits.of(mask), settings);
+    }
+
+    BinaryMask(Menu.Dimension dimension, SlotBits mask, SlotSettings settings) {
         this.dimension = dimension;
-        this.mask = Collections.unmodifiableList(mask);
+        this.mask = mask;
         this.settings = settings;
     }
 
     @Override
     public List<Integer> getSlots() {
-        return mask;
+        if (slots == null) {
+            slots = mask.toList();
+        }
+        return slots;
+    }
+
+    @Override
+    public IntStream slots() {
+        return mask.stream();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt slotIterator() {
+        return mask.iterator();
     }
 
     @Override
@@ -80,10 +98,10 @@ public class BinaryMask implements Mask {
 
     @Override
     public void apply(Menu menu) {
-        for (int slot : getSlots()) {
-            Slot affected = menu.getSlot(slot);
+        menu.batch(m -> mask.forEach(slot -> {
+            Slot affected = m.getSlot(slot);
             affected.setSettings(settings);
-        }
+        }));
     }
 
     @Override
@@ -97,10 +115,152 @@ public class BinaryMask implements Mask {
     }
 
     @Override
-    public Iterator<Integer> iterator() {
+    public PrimitiveIterator.OfInt iterator() {
         return mask.iterator();
     }
 
+    /**
+     * Returns the settings this mask applies to affected slots.
+     *
+     * @return slot settings
+     */
+    public SlotSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Returns a mask affecting the same slots as this mask that applies
+     * different settings.
+     *
+     * @param settings slot settings
+     * @return mask with settings
+     */
+    public BinaryMask withItem(SlotSettings settings) {
+        return settings == this.settings ? this : new BinaryMask(dimension, mask, settings);
+    }
+
+    /**
+     * Returns a mask affecting the same slots as this mask that applies
+     * a different item.
+     *
+     * @param item item template
+     * @return mask with item
+     */
+    public BinaryMask withItem(ItemStackTemplate item) {
+        return withItem(SlotSettings.builder().itemTemplate(item).build());
+    }
+
+    /**
+     * Returns a mask affecting the same slots as this mask that applies
+     * a different item.
+     *
+     * @param item item
+     * @return mask with item
+     */
+    public BinaryMask withItem(ItemStack item) {
+        return withItem(item == null ? null : new StaticItemTemplate(item));
+    }
+
+    /**
+     * Returns a mask affecting all slots affected by this or another mask.
+     *
+     * <p>The returned mask has the dimensions and settings of this mask.
+     *
+     * @param other other mask
+     * @return union of both masks
+     */
+    @Override
+    public BinaryMask union(Mask other) {
+        return withSlots(mask.or(bitsOf(other)));
+    }
+
+    /**
+     * Returns a mask affecting all slots affected by both this and another mask.
+     *
+     * <p>The returned mask has the dimensions and settings of this mask.
+     *
+     * @param other other mask
+     * @return intersection of both masks
+     */
+    @Override
+    public BinaryMask intersect(Mask other) {
+        return withSlots(mask.and(bitsOf(other)));
+    }
+
+    /**
+     * Returns a mask affecting all slots affected by this mask that are
+     * not affected by another mask.
+     *
+     * <p>The returned mask has the dimensions and settings of this mask.
+     *
+     * @param other other mask
+     * @return difference of both masks
+     */
+    @Override
+    public BinaryMask subtract(Mask other) {
+        return withSlots(mask.andNot(bitsOf(other)));
+    }
+
+    /**
+     * Returns a mask affecting all slots within the dimensions of this
+     * mask that are not affected by this mask.
+     *
+     * <p>The returned mask has the dimensions and settings of this mask.
+     *
+     * @return complement of this mask
+     */
+    @Override
+    public BinaryMask complement() {
+        return withSlots(SlotBits.range(dimension.getArea()).andNot(mask));
+    }
+
+    /**
+     * Returns a mask with every affected slot moved by a number of rows
+     * and columns. Slots that are moved outside the dimensions of this
+     * mask are discarded.
+     *
+     * <p>The returned mask has the dimensions and settings of this mask.
+     *
+     * @param rows amount of rows to move down by, negative values move up
+     * @param columns amount of columns to move right by, negative values move left
+     * @return shifted mask
+     */
+    @Override
+    public BinaryMask shift(int rows, int columns) {
+        // Only keep the columns that do not wrap into a neighbouring row
+        int cols = dimension.getColumns();
+        SlotBits movable = SlotBits.columns(dimension, -columns, cols - columns);
+        return withSlots(mask.and(movable)
+                .shift(rows * cols + columns)
+                .and(SlotBits.range(dimension.getArea())));
+    }
+
+    /* Returns a mask with the dimensions and settings of this mask affecting other slots */
+    private BinaryMask withSlots(SlotBits slots) {
+        return slots.equals(mask) ? this : new BinaryMask(dimension, slots, settings);
+    }
+
+    /* Returns the slots of any mask as a bitset */
+    private static SlotBits bitsOf(Mask mask) {
+        return mask instanceof BinaryMask ? ((BinaryMask) mask).mask : SlotBits.of(mask.getSlots());
+    }
+
+    /**
+     * Returns a binary mask affecting the same slots as another mask.
+     *
+     * <p>If the mask is a binary mask it is returned as is, otherwise
+     * the returned mask does not apply any settings.
+     *
+     * @param mask mask
+     * @return binary mask
+     */
+    public static BinaryMask of(Mask mask) {
+        if (mask instanceof BinaryMask) {
+            return (BinaryMask) mask;
+        }
+        return new BinaryMask(mask.getDimensions(), SlotBits.of(mask.getSlots()), null);
+    }
+
     /**
      * Returns a new builder that matches the dimensions of a Menu
      *
@@ -129,7 +289,7 @@ public class BinaryMask implements Mask {
      * @return mask builder for dimensions
      */
     public static BinaryMaskBuilder builder(int rows, int cols) {
-        return builder(new Menu.Dimension(rows, cols));
+        return builder(Menu.Dimension.of(rows, cols));
     }
 
     /**
@@ -26,6 +26,8 @@ package de.spookly.canvas.mask;
 import de.spookly.canvas.Menu;
 
 import java.util.Collection;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
 
 /**
  * A basic inventory position mask.
@@ -35,6 +37,12 @@ import java.util.Collection;
  * <p>
  * Calling {@link #iterator()} will return an iterator over all the 
  * available indices covered by this mask.
+ * <p>
+ * The set operations such as {@link #union(Mask)} return a {@link BinaryMask}
+ * that keeps the settings of this mask if it is a binary mask. Masks that
+ * apply settings per slot, such as a {@link RecipeMask}, lose their settings
+ * when combined, so the resulting mask does not apply any settings until one
+ * is set with {@link BinaryMask#withItem(de.spookly.canvas.slot.SlotSettings)}.
  */
 public interface Mask extends Iterable<Integer> {
 
@@ -45,6 +53,26 @@ public interface Mask extends Iterable<Integer> {
      */
     Collection<Integer> getSlots();
 
+    /**
+     * Returns the slot indexes affected by the mask as a stream
+     * of primitive values.
+     *
+     * @return affected slots
+     */
+    default IntStream slots() {
+        return getSlots().stream().mapToInt(Integer::intValue);
+    }
+
+    /**
+     * Returns an iterator over the slot indexes affected by the mask
+     * that does not box its values when using {@link PrimitiveIterator.OfInt#nextInt()}.
+     *
+     * @return iterator over affected slots
+     */
+    default PrimitiveIterator.OfInt slotIterator() {
+        return slots().iterator();
+    }
+
     /**
      * Returns the dimensions that this mask is applicable for.
      *
@@ -77,6 +105,65 @@ public interface Mask extends Iterable<Integer> {
      */
     boolean contains(int row, int column);
 
+    /**
+     * Returns a mask affecting all slots affected by this or another mask.
+     *
+     * @param other other mask
+     * @return union of both masks
+     * @see BinaryMask#union(Mask)
+     */
+    default Mask union(Mask other) {
+        return BinaryMask.of(this).union(other);
+    }
+
+    /**
+     * Returns a mask affecting all slots affected by both this and another mask.
+     *
+     * @param other other mask
+     * @return intersection of both masks
+     * @see BinaryMask#intersect(Mask)
+     */
+    default Mask intersect(Mask other) {
+        return BinaryMask.of(this).intersect(other);
+    }
+
+    /**
+     * Returns a mask affecting all slots affected by this mask that are
+     * not affected by another mask.
+     *
+     * @param other other mask
+     * @return difference of both masks
+     * @see BinaryMask#subtract(Mask)
+     */
+    default Mask subtract(Mask other) {
+        return BinaryMask.of(this).subtract(other);
+    }
+
+    /**
+     * Returns a mask affecting all slots within the dimensions of this
+     * mask that are not affected by this mask.
+     *
+     * @return complement of this mask
+     * @see BinaryMask#complement()
+     */
+    default Mask complement() {
+        return BinaryMask.of(this).complement();
+    }
+
+    /**
+     * Returns a mask with every affected slot moved by a number of rows
+     * and columns. Slots that are moved outside the dimensions of this
+     * mask are discarded.
+     *
+     * @param rows amount of rows to move down by, negative values move up
+     * @param columns amount of columns to move right by, negative values move left
+     * @return shifted mask
+     * @see BinaryMask#shift(int, int)
+     */
+    default Mask shift(int rows, int columns) {
+        return BinaryMask.of(this).shift(rows, columns);
+    }
+
     /**
      * Applies the mask to a menu.
      *
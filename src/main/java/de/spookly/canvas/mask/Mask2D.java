@@ -122,7 +122,7 @@ public class Mask2D implements Mask {
      * @return A mask builder for the specified number of rows and columns
      */
     public static Mask2D.Builder builder(int rows, int cols) {
-        return builder(new Menu.Dimension(rows, cols));
+        return builder(Menu.Dimension.of(rows, cols));
     }
 
     /**
@@ -26,12 +26,14 @@ package de.spookly.canvas.mask;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.ShapedRecipe;
 import de.spookly.canvas.Menu;
+import de.spookly.canvas.slot.ClickOptions;
 import de.spookly.canvas.slot.Slot;
 import de.spookly.canvas.slot.SlotSettings;
 import de.spookly.canvas.template.ItemStackTemplate;
 import de.spookly.canvas.template.StaticItemTemplate;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * A mask that accepts maps items to specific characters,
@@ -58,18 +60,46 @@ import java.util.*;
 public class RecipeMask implements Mask {
 
     private final Menu.Dimension dimension;
-    private Map<Integer, Character> mask;
-    private Map<Character, SlotSettings> settings;
+    private final SlotBits slots;
+    private final SlotSettings[] groupSettings;
+    private final int[][] groupSlots;
+    private List<Integer> slotList;
 
     protected RecipeMask(Menu.Dimension dimension, Map<Integer, Character> mask, Map<Character, SlotSettings> settings) {
         this.dimension = dimension;
-        this.mask = Collections.unmodifiableMap(mask);
-        this.settings = Collections.unmodifiableMap(settings);
+        this.slots = SlotBits.of(mask.keySet());
+
+        // Group the slots by the settings applied to them, so that applying
+        // the mask does not need to resolve settings per slot
+        Map<SlotSettings, List<Integer>> groups = new LinkedHashMap<>();
+        slots.forEach(slot -> {
+            SlotSettings slotSettings = settings.get(mask.get(slot));
+            if (slotSettings != null) {
+                groups.computeIfAbsent(slotSettings, s -> new ArrayList<>()).add(slot);
+            }
+        });
+        this.groupSettings = groups.keySet().toArray(new SlotSettings[0]);
+        this.groupSlots = groups.values().stream()
+                .map(group -> group.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
     }
 
     @Override
     public Collection<Integer> getSlots() {
-        return mask.keySet();
+        if (slotList == null) {
+            slotList = slots.toList();
+        }
+        return slotList;
+    }
+
+    @Override
+    public IntStream slots() {
+        return slots.stream();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt slotIterator() {
+        return slots.iterator();
     }
 
     @Override
@@ -79,7 +109,7 @@ public class RecipeMask implements Mask {
 
     @Override
     public boolean contains(int index) {
-        return mask.containsKey(index);
+        return slots.contains(index);
     }
 
     @Override
@@ -92,11 +122,27 @@ public class RecipeMask implements Mask {
 
     @Override
     public void apply(Menu menu) {
-        mask.forEach((slot, character) -> {
-            SlotSettings settings = this.settings.get(character);
-            if (settings != null) {
-                Slot affected = menu.getSlot(slot);
-                affected.setSettings(settings);
+        menu.batch(m -> {
+            for (int group = 0; group < groupSettings.length; group++) {
+                // Resolve the shared settings once for the whole group
+                SlotSettings settings = groupSettings[group];
+                ItemStackTemplate template = settings.getItemTemplate();
+                Slot.ClickHandler handler = settings.getClickHandler();
+                ClickOptions options = settings.getClickOptions();
+                List<String> arguments = settings.getItemArguments();
+                boolean hasArguments = arguments != null && !arguments.isEmpty();
+
+                for (int slot : groupSlots[group]) {
+                    Slot affected = m.getSlot(slot);
+                    affected.setItemTemplate(template);
+                    affected.setClickHandler(handler);
+                    if (options != null) {
+                        affected.setClickOptions(options);
+                    }
+                    if (hasArguments) {
+                        affected.setArguments(arguments);
+                    }
+                }
             }
         });
     }
@@ -112,8 +158,8 @@ public class RecipeMask implements Mask {
     }
 
     @Override
-    public Iterator<Integer> iterator() {
-        return mask.keySet().iterator();
+    public PrimitiveIterator.OfInt iterator() {
+        return slots.iterator();
     }
 
     /**
@@ -144,7 +190,7 @@ public class RecipeMask implements Mask {
      * @return mask builder for dimensions
      */
     public static RecipeMaskBuilder builder(int rows, int cols) {
-        return builder(new Menu.Dimension(rows, cols));
+        return builder(Menu.Dimension.of(rows, cols));
     }
 
     /**
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.mask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import de.spookly.canvas.Menu;
+
+/**
+ * An immutable set of slot indexes stored as a bitset.
+ *
+ * <p>Every slot is represented by a single bit, so the slots of even the
+ * largest menu fit into a single {@code long}.
+ */
+final class SlotBits {
+
+    private final long[] words;
+    private final int size;
+
+    private SlotBits(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        this.words = length == words.length ? words : Arrays.copyOf(words, length);
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns a new set containing all slots in a collection.
+     *
+     * @param slots slot indexes
+     * @return slot set
+     * @throws IllegalArgumentException if a slot index is negative
+     */
+    static SlotBits of(Collection<Integer> slots) {
+        int max = -1;
+        for (int slot : slots) {
+            if (slot < 0) {
+                throw new IllegalArgumentException("slot index cannot be negative");
+            }
+            max = Math.max(max, slot);
+        }
+        long[] words = new long[max < 0 ? 0 : (max >>> 6) + 1];
+        for (int slot : slots) {
+            words[slot >>> 6] |= 1L << slot;
+        }
+        return new SlotBits(words);
+    }
+
+    /**
+     * Returns a new set containing every slot from 0 up to an exclusive bound.
+     *
+     * @param area exclusive upper bound
+     * @return slot set
+     */
+    static SlotBits range(int area) {
+        long[] words = new long[(area + 63) >>> 6];
+        for (int w = 0; w < words.length; w++) {
+            int bits = Math.min(64, area - (w << 6));
+            words[w] = bits == 64 ? -1L : (1L << bits) - 1;
+        }
+        return new SlotBits(words);
+    }
+
+    /**
+     * Returns a new set containing the slots of every row of a menu that
+     * lie within a range of columns.
+     *
+     * @param dimension menu dimensions
+     * @param from first column to include, starting at 0
+     * @param to exclusive last column to include
+     * @return slot set
+     */
+    static SlotBits columns(Menu.Dimension dimension, int from, int to) {
+        int cols = dimension.getColumns();
+        long[] words = new long[(dimension.getArea() + 63) >>> 6];
+        from = Math.max(0, from);
+        to = Math.min(cols, to);
+        if (from < to) {
+            // Bits of a single row, placed at the start of each row in turn
+            long row = (to - from == 64 ? -1L : (1L << (to - from)) - 1) << from;
+            for (int offset = 0; offset < dimension.getArea(); offset += cols) {
+                int bit = offset & 63;
+                words[offset >>> 6] |= row << bit;
+                if (bit != 0 && bit + to > 64) {
+                    words[(offset >>> 6) + 1] |= row >>> (64 - bit);
+                }
+            }
+        }
+        return new SlotBits(words);
+    }
+
+    /**
+     * Returns a new set containing every slot contained by either set.
+     *
+     * @param other other set
+     * @return union of both sets
+     */
+    SlotBits or(SlotBits other) {
+        long[] result = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int w = 0; w < other.words.length; w++) {
+            result[w] |= other.words[w];
+        }
+        return new SlotBits(result);
+    }
+
+    /**
+     * Returns a new set containing every slot contained by both sets.
+     *
+     * @param other other set
+     * @return intersection of both sets
+     */
+    SlotBits and(SlotBits other) {
+        long[] result = Arrays.copyOf(words, Math.min(words.length, other.words.length));
+        for (int w = 0; w < result.length; w++) {
+            result[w] &= other.words[w];
+        }
+        return new SlotBits(result);
+    }
+
+    /**
+     * Returns a new set containing every slot of this set that is not
+     * contained by another set.
+     *
+     * @param other other set
+     * @return difference of both sets
+     */
+    SlotBits andNot(SlotBits other) {
+        long[] result = Arrays.copyOf(words, words.length);
+        for (int w = 0; w < Math.min(result.length, other.words.length); w++) {
+            result[w] &= ~other.words[w];
+        }
+        return new SlotBits(result);
+    }
+
+    /**
+     * Returns a new set with every slot moved by a distance. Slots that
+     * would be moved to a negative index are discarded.
+     *
+     * @param distance amount of slots to move by, negative values move towards 0
+     * @return shifted set
+     */
+    SlotBits shift(int distance) {
+        if (distance == 0 || words.length == 0) {
+            return this;
+        }
+        int wordShift = Math.abs(distance) >>> 6;
+        int bitShift = Math.abs(distance) & 63;
+        long[] result;
+        if (distance > 0) {
+            result = new long[words.length + wordShift + 1];
+            for (int w = 0; w < words.length; w++) {
+                result[w + wordShift] |= words[w] << bitShift;
+                if (bitShift != 0) {
+                    result[w + wordShift + 1] |= words[w] >>> (64 - bitShift);
+                }
+            }
+        } else {
+            result = new long[Math.max(0, words.length - wordShift)];
+            for (int w = 0; w < result.length; w++) {
+                result[w] = words[w + wordShift] >>> bitShift;
+                if (bitShift != 0 && w + wordShift + 1 < words.length) {
+                    result[w] |= words[w + wordShift + 1] << (64 - bitShift);
+                }
+            }
+        }
+        return new SlotBits(result);
+    }
+
+    /**
+     * Returns whether a slot is contained by this set.
+     *
+     * @param index slot index
+     * @return true if the slot is contained, false otherwise
+     */
+    boolean contains(int index) {
+        int word = index >>> 6;
+        return index >= 0 && word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the amount of slots in this set.
+     *
+     * @return slot count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Performs an action for every slot in ascending order.
+     *
+     * @param action action to perform
+     */
+    void forEach(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over all slots in ascending order.
+     *
+     * @return slot iterator
+     */
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index;
+            private long word = words.length == 0 ? 0 : words[0];
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && index < words.length - 1) {
+                    word = words[++index];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int slot = (index << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return slot;
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of all slots in ascending order.
+     *
+     * @return slot stream
+     */
+    IntStream stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED
+                | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), size, characteristics), false);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SlotBits)) return false;
+        return Arrays.equals(words, ((SlotBits) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * Returns an unmodifiable list of all slots in ascending order.
+     *
+     * @return slot list
+     */
+    List<Integer> toList() {
+        List<Integer> slots = new ArrayList<>(size);
+        forEach(slots::add);
+        return Collections.unmodifiableList(slots);
+    }
+}
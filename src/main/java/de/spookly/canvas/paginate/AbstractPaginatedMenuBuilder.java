@@ -32,6 +32,7 @@ import de.spookly.canvas.slot.Slot;
 import de.spookly.canvas.template.ItemStackTemplate;
 import de.spookly.canvas.template.StaticItemTemplate;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -49,6 +50,7 @@ public abstract class AbstractPaginatedMenuBuilder<T extends AbstractPaginatedMe
     private ItemStackTemplate nextButton;
     private ItemStackTemplate nextButtonEmpty;
     private PaginatedMenuTitles menuTitles;
+    private boolean prefetchPages;
 
     public AbstractPaginatedMenuBuilder(Menu.Builder<?> pageBuilder) {
         this.pageBuilder = pageBuilder;
@@ -209,10 +211,8 @@ public abstract class AbstractPaginatedMenuBuilder<T extends AbstractPaginatedMe
 
     /* Helper method to get a slot index from a Mask2D */
     private static int indexFromMask(Mask mask) {
-        if (mask.getSlots().isEmpty()) {
-            return -1;
-        }
-        return mask.getSlots().iterator().next();
+        PrimitiveIterator.OfInt slots = mask.slotIterator();
+        return slots.hasNext() ? slots.nextInt() : -1;
     }
 
     /**
@@ -343,21 +343,81 @@ public abstract class AbstractPaginatedMenuBuilder<T extends AbstractPaginatedMe
         return (T) this;
     }
 
+    /**
+     * Returns whether the pages next to the page a player navigates to
+     * are prefetched for the player.
+     *
+     * @return true if neighbouring pages are prefetched, false otherwise
+     */
+    public boolean isPrefetchingPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Sets whether the pages next to the page a player navigates to are
+     * prefetched for the player.
+     *
+     * <p>When enabled, the item templates of the previous and next page
+     * are {@link ItemStackTemplate#prefetch(Player) prefetched}, so that
+     * templates rendering their items asynchronously are already loaded
+     * once the player flips the page. The page a player leaves stays
+     * prepared while it neighbours the viewed page, and prefetched templates
+     * are released once the player moves further away or closes the page.
+     *
+     * @param prefetchPages whether to prefetch neighbouring pages
+     * @return fluent pattern
+     */
+    public T prefetchPages(boolean prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        return (T) this;
+    }
+
     /**
      * Internal helper method to link any generated pages.
      *
      * @param pages pages to link
      */
     void linkPages(List<Menu> pages) {
-        for (int i = 1; i < pages.size(); i++) {
-            Menu page = pages.get(i);
-            Menu prev = pages.get(i - 1);
-            //TODO
-            nextButtonSlot.forEach(nextIndex -> {
-                setPaginationIcon(prev, nextIndex, nextButton, (p, c) -> page.open(p));
-            });
+        PagePrefetcher prefetcher = prefetchPages ? new PagePrefetcher() : null;
+        for (int i = 0; i < pages.size(); i++) {
+            int prev = i - 1;
+            int next = i + 1;
+            linkPage(pages.get(i),
+                    prev < 0 ? null : (p, c) -> openPage(pages, prev, p, prefetcher),
+                    next >= pages.size() ? null : (p, c) -> openPage(pages, next, p, prefetcher));
+            if (prefetcher != null) {
+                prefetcher.attach(pages.get(i));
+            }
+        }
+    }
+
+    /* Opens a page for a player and prefetches its neighbours if enabled */
+    private static void openPage(List<Menu> pages, int index, Player viewer, PagePrefetcher prefetcher) {
+        Menu page = pages.get(index);
+        page.open(viewer);
+        if (prefetcher != null) {
+            prefetcher.prefetch(viewer, page,
+                    index > 0 ? pages.get(index - 1) : null,
+                    index < pages.size() - 1 ? pages.get(index + 1) : null);
+        }
+    }
+
+    /**
+     * Internal helper method to link a single page to its neighbours.
+     *
+     * @param page     page to link
+     * @param previous click handler opening the previous page, or null if there is none
+     * @param next     click handler opening the next page, or null if there is none
+     */
+    void linkPage(Menu page, Slot.ClickHandler previous, Slot.ClickHandler next) {
+        if (previous != null) {
             previousButtonSlot.forEach(prevIndex -> {
-                setPaginationIcon(page, prevIndex, previousButton, (p, c) -> prev.open(p));
+                setPaginationIcon(page, prevIndex, previousButton, previous);
+            });
+        }
+        if (next != null) {
+            nextButtonSlot.forEach(nextIndex -> {
+                setPaginationIcon(page, nextIndex, nextButton, next);
             });
         }
     }
@@ -368,25 +428,30 @@ public abstract class AbstractPaginatedMenuBuilder<T extends AbstractPaginatedMe
      * @param pages pages to title
      */
     void setPageTitles(List<Menu> pages) {
-        if (this.menuTitles != null) {
-            if (pages.size() <= 1) {
-                pages.getFirst().title(this.menuTitles.getNoPages());
-                return;
-            }
-            for (int i = 0; i < pages.size(); i++) {
-                Menu page = pages.get(i);
-                if (i > 0 && i < pages.size() - 1) {
-                    page.title(this.menuTitles.getPages());
-                    continue;
-                }
-                if (i == 0) {
-                    page.title(this.menuTitles.getFirstPage());
-                    continue;
-                }
-                if (i == pages.size() - 1) {
-                    page.title(this.menuTitles.getLastPage());
-                }
-            }
+        for (int i = 0; i < pages.size(); i++) {
+            setPageTitle(pages.get(i), i, pages.size());
+        }
+    }
+
+    /**
+     * Internal helper method to title a single page.
+     *
+     * @param page      page to title
+     * @param index     index of the page
+     * @param pageCount total amount of pages
+     */
+    void setPageTitle(Menu page, int index, int pageCount) {
+        if (this.menuTitles == null) {
+            return;
+        }
+        if (pageCount <= 1) {
+            page.title(this.menuTitles.getNoPages());
+        } else if (index == 0) {
+            page.title(this.menuTitles.getFirstPage());
+        } else if (index == pageCount - 1) {
+            page.title(this.menuTitles.getLastPage());
+        } else {
+            page.title(this.menuTitles.getPages());
         }
     }
 
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.paginate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.slot.SlotSettings;
+import de.spookly.canvas.type.MenuUpdateScheduler;
+
+/**
+ * A series of menu pages that are only created once a player navigates
+ * to them.
+ *
+ * <p>Only a bounded amount of pages is kept in memory. When the limit is
+ * exceeded the least recently accessed page that is not being viewed is
+ * discarded, and created again if it is opened later on.
+ *
+ * <p>Pages are created from the state of the {@link PaginatedMenuBuilder}
+ * that built this menu at the time the page is created, except for the
+ * slots items are inserted into, which are fixed when the menu is built.
+ *
+ * <p>If the item source does not know its size, the amount of pages is
+ * only known once the last page has been created. Until then, each page
+ * links to a next page as long as more items are available.
+ *
+ * <p>If {@link PaginatedMenuBuilder#prefetchPages(boolean) prefetching} is
+ * enabled, the pages next to an opened page are created and their templates
+ * prefetched for the player on the following tick, so that flipping the
+ * page does not wait for the item source or slow templates. The tick is
+ * scheduled through the plugin of the {@link MenuUpdateScheduler}; without
+ * one, the neighbouring pages are prefetched right after the page opened.
+ */
+public class LazyPaginatedMenu {
+
+    private final PaginatedMenuBuilder builder;
+    private final PaginatedItemSource source;
+    private final int maxLoadedPages;
+    private final Map<Integer, Menu> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final PagePrefetcher prefetcher;
+    private final int[] validSlots;
+
+    // Index of the last page of sources with an unknown size, once it was created
+    private int lastPage = -1;
+
+    LazyPaginatedMenu(PaginatedMenuBuilder builder, PaginatedItemSource source, int maxLoadedPages) {
+        this.builder = builder;
+        this.source = source;
+        this.maxLoadedPages = maxLoadedPages;
+        this.prefetcher = builder.isPrefetchingPages() ? new PagePrefetcher() : null;
+        this.validSlots = builder.getValidSlots();
+    }
+
+    /**
+     * Returns the amount of pages in this menu.
+     *
+     * @return page count, or {@link PaginatedItemSource#UNKNOWN_SIZE} if the item
+     *         source does not know its size and the last page was not created yet
+     */
+    public int getPageCount() {
+        int perPage = validSlots.length;
+        if (perPage == 0) {
+            return 1;
+        }
+        int size = source.size();
+        if (size == PaginatedItemSource.UNKNOWN_SIZE) {
+            return lastPage >= 0 ? lastPage + 1 : PaginatedItemSource.UNKNOWN_SIZE;
+        }
+        return Math.max(1, (size + perPage - 1) / perPage);
+    }
+
+    /**
+     * Returns the amount of pages that are currently kept in memory.
+     *
+     * @return loaded page count
+     */
+    public int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns the page at an index, creating it if it is not loaded.
+     *
+     * @param index page index, starting at 0
+     * @return page
+     * @throws IndexOutOfBoundsException if the page does not exist
+     */
+    public Menu getPage(int index) {
+        int pageCount = getPageCount();
+        if (index < 0 || (pageCount != PaginatedItemSource.UNKNOWN_SIZE && index >= pageCount)) {
+            throw new IndexOutOfBoundsException("page " + index + " out of bounds for " + pageCount + " pages");
+        }
+        Menu page = pages.get(index);
+        if (page == null) {
+            page = createPage(index);
+            if (page == null) {
+                throw new IndexOutOfBoundsException("page " + index + " out of bounds, source has no more items");
+            }
+            pages.put(index, page);
+            evictPages(index);
+        }
+        return page;
+    }
+
+    /**
+     * Opens the first page for a player.
+     *
+     * @param viewer player
+     */
+    public void open(Player viewer) {
+        open(viewer, 0);
+    }
+
+    /**
+     * Opens a page for a player.
+     *
+     * @param viewer player
+     * @param index page index, starting at 0
+     * @throws IndexOutOfBoundsException if the page does not exist
+     */
+    public void open(Player viewer, int index) {
+        Menu page = getPage(index);
+        page.open(viewer);
+        if (prefetcher == null) {
+            return;
+        }
+
+        Runnable prefetch = () -> {
+            if (page.isOpen(viewer)) {
+                prefetcher.prefetch(viewer, page, findPage(index - 1), findPage(index + 1));
+            }
+        };
+        // Creating the neighbouring pages may be expensive, so let the page open first
+        Plugin plugin = MenuUpdateScheduler.getInstance().getPlugin();
+        if (plugin != null && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, prefetch);
+        } else {
+            prefetch.run();
+        }
+    }
+
+    /**
+     * Discards all loaded pages that are not currently being viewed.
+     *
+     * <p>This should be called after the underlying items changed, so
+     * that pages are recreated with the new items when they are opened.
+     */
+    public void invalidate() {
+        pages.values().removeIf(page -> page.getViewers().isEmpty());
+        lastPage = -1;
+    }
+
+    /* Creates a page and fills it with the items of the source that belong to the page */
+    private Menu createPage(int index) {
+        int perPage = validSlots.length;
+        boolean hasNext;
+        List<SlotSettings> items;
+
+        if (source.size() == PaginatedItemSource.UNKNOWN_SIZE) {
+            // Request one more item than fits to find out whether a next page exists
+            items = perPage == 0 ? List.of() : source.slice(index * perPage, perPage + 1);
+            if (items.isEmpty() && index > 0) {
+                return null;
+            }
+            hasNext = items.size() > perPage;
+            if (!hasNext) {
+                lastPage = index;
+            }
+        } else {
+            items = source.slice(index * perPage, perPage);
+            hasNext = index < getPageCount() - 1;
+        }
+
+        Menu page = builder.newPage();
+        page.batch(menu -> {
+            for (int i = 0; i < items.size() && i < perPage; i++) {
+                menu.getSlot(validSlots[i]).setSettings(items.get(i));
+            }
+        });
+
+        builder.linkPage(page,
+                index > 0 ? (p, c) -> open(p, index - 1) : null,
+                hasNext ? (p, c) -> open(p, index + 1) : null);
+        builder.setPageTitle(page, index, hasNext ? index + 2 : index + 1);
+        if (prefetcher != null) {
+            prefetcher.attach(page);
+        }
+        return page;
+    }
+
+    /* Returns the page at an index, or null if it does not exist */
+    private Menu findPage(int index) {
+        int pageCount = getPageCount();
+        if (index < 0 || (pageCount != PaginatedItemSource.UNKNOWN_SIZE && index >= pageCount)) {
+            return null;
+        }
+        try {
+            return getPage(index);
+        } catch (IndexOutOfBoundsException e) {
+            // The item source has no items left for the page
+            return null;
+        }
+    }
+
+    /* Discards the least recently accessed pages that nobody is viewing until the limit is met */
+    private void evictPages(int requested) {
+        Iterator<Map.Entry<Integer, Menu>> iterator = pages.entrySet().iterator();
+        while (pages.size() > maxLoadedPages && iterator.hasNext()) {
+            Map.Entry<Integer, Menu> entry = iterator.next();
+            if (entry.getKey() != requested && entry.getValue().getViewers().isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+}
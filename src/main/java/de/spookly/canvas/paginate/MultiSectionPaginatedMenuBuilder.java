@@ -34,9 +34,9 @@ import de.spookly.canvas.template.StaticItemTemplate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.function.Consumer;
 
 /**
@@ -136,12 +136,12 @@ public class MultiSectionPaginatedMenuBuilder extends AbstractPaginatedMenuBuild
      */
     public List<Menu> build() {
         List<Menu> pages = new ArrayList<>();
-        Map<Character, List<SlotSettings>> sectionItems = new HashMap<>();
-        this.sectionItems.forEach((c, l) -> sectionItems.put(c, new ArrayList<>(l))); // Deep clone
+        Map<Character, Integer> cursors = new HashMap<>();
 
-        boolean requiresPage = false;
+        boolean requiresPage;
 
         do {
+            requiresPage = false;
             Menu page = getPageBuilder().build();
             if (!getNewMenuModifiers().isEmpty()) {
                 for (Consumer<Menu> menuModifier : getNewMenuModifiers()) {
@@ -154,18 +154,21 @@ public class MultiSectionPaginatedMenuBuilder extends AbstractPaginatedMenuBuild
             for (Map.Entry<Character, List<SlotSettings>> entry : sectionItems.entrySet()) {
                 List<SlotSettings> items = entry.getValue();
                 Mask slots = sectionSlots.get(entry.getKey());
-                Iterator<Integer> slotIterator = slots.iterator();
+                int cursor = cursors.getOrDefault(entry.getKey(), 0);
+                int placed = 0;
+                PrimitiveIterator.OfInt slotIterator = slots.slotIterator();
 
-                while (!items.isEmpty() && slotIterator.hasNext()) {
-                    int slotIndex = slotIterator.next();
+                while (cursor < items.size() && slotIterator.hasNext()) {
+                    int slotIndex = slotIterator.nextInt();
                     if (slotIndex >= 0 && page.getDimensions().getArea() > slotIndex) {
-                        SlotSettings item = items.remove(0);
                         Slot slot = page.getSlot(slotIndex);
-                        slot.setSettings(item);
+                        slot.setSettings(items.get(cursor++));
+                        placed++;
                     }
                 }
 
-                requiresPage = requiresPage || !items.isEmpty();
+                cursors.put(entry.getKey(), cursor);
+                requiresPage = requiresPage || (cursor < items.size() && placed > 0);
             }
 
             pages.add(page);
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.paginate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.bukkit.entity.Player;
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.type.AbstractMenu;
+
+/**
+ * Keeps the item templates of the pages neighbouring the page a player is
+ * viewing prefetched for that player.
+ *
+ * <p>The prefetcher takes over releasing the templates of its pages. When a
+ * player navigates between pages, the page that was left is kept prepared
+ * until it no longer neighbours the viewed page. Once the player closes a
+ * page or navigates to any other menu, every template prepared for the
+ * player is released.
+ */
+final class PagePrefetcher implements AbstractMenu.TemplateReleaser {
+
+    // Pages whose templates are prepared for a player, besides the page they are viewing
+    private final Map<UUID, List<AbstractMenu>> prepared = new HashMap<>();
+
+    /**
+     * Internal helper method to let the prefetcher release the templates
+     * of a page.
+     *
+     * @param page page to manage
+     */
+    void attach(Menu page) {
+        if (page instanceof AbstractMenu) {
+            ((AbstractMenu) page).setTemplateReleaser(this);
+        }
+    }
+
+    /**
+     * Internal helper method to prefetch the neighbours of the page a player
+     * is viewing, releasing prepared pages that no longer neighbour it.
+     *
+     * @param viewer player
+     * @param current page the player is viewing
+     * @param previous previous page, or null if there is none
+     * @param next next page, or null if there is none
+     */
+    void prefetch(Player viewer, Menu current, Menu previous, Menu next) {
+        List<AbstractMenu> neighbours = new ArrayList<>(2);
+        for (Menu page : new Menu[]{previous, next}) {
+            if (isAttached(page)) {
+                neighbours.add((AbstractMenu) page);
+            }
+        }
+
+        Set<ItemStackTemplate> keep = templatesOf(current);
+        for (AbstractMenu neighbour : neighbours) {
+            forEachTemplate(neighbour, template -> {
+                if (keep.add(template)) {
+                    template.prefetch(viewer);
+                }
+            });
+        }
+
+        List<AbstractMenu> stale = prepared.put(viewer.getUniqueId(), neighbours);
+        if (stale != null) {
+            releaseExcept(viewer, stale, keep);
+        }
+    }
+
+    @Override
+    public void release(Player viewer, AbstractMenu menu, AbstractMenu next) {
+        if (next != null && next.getTemplateReleaser() == this) {
+            // Keep the page that was left prepared, the next prefetch decides whether it is still needed
+            List<AbstractMenu> pages = prepared.computeIfAbsent(viewer.getUniqueId(), id -> new ArrayList<>());
+            if (!pages.contains(menu)) {
+                pages.add(menu);
+            }
+            return;
+        }
+
+        List<AbstractMenu> pages = prepared.remove(viewer.getUniqueId());
+        pages = pages == null ? new ArrayList<>() : pages;
+        if (!pages.contains(menu)) {
+            pages.add(menu);
+        }
+        releaseExcept(viewer, pages, templatesOf(next));
+    }
+
+    /* Releases the templates of pages for a player, except templates that are kept */
+    private static void releaseExcept(Player viewer, List<AbstractMenu> pages, Set<ItemStackTemplate> keep) {
+        for (AbstractMenu page : pages) {
+            forEachTemplate(page, template -> {
+                // Templates shared by several pages are only released once
+                if (keep.add(template)) {
+                    template.release(viewer);
+                }
+            });
+        }
+    }
+
+    /* Returns whether the templates of a page are released by this prefetcher */
+    private boolean isAttached(Menu page) {
+        return page instanceof AbstractMenu && ((AbstractMenu) page).getTemplateReleaser() == this;
+    }
+
+    /* Returns the item templates of a page by identity */
+    private static Set<ItemStackTemplate> templatesOf(Menu page) {
+        Set<ItemStackTemplate> templates = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (page != null) {
+            forEachTemplate(page, templates::add);
+        }
+        return templates;
+    }
+
+    /* Visits the item templates of every slot of a page */
+    private static void forEachTemplate(Menu page, Consumer<ItemStackTemplate> action) {
+        int area = page.getDimensions().getArea();
+        for (int index = 0; index < area; index++) {
+            ItemStackTemplate template = page instanceof AbstractMenu
+                    ? ((AbstractMenu) page).getItemTemplate(index)
+                    : page.getSlot(index).getItemTemplate();
+            if (template != null) {
+                action.accept(template);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.paginate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.bukkit.inventory.ItemStack;
+import de.spookly.canvas.slot.SlotSettings;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.template.StaticItemTemplate;
+
+/**
+ * A source of items for paginated menus that can be read one page at a time.
+ *
+ * <p>Implementations only need to provide the items that fall within a
+ * requested range, allowing large data sets to be paginated without
+ * materializing every item or page up front.
+ *
+ * <p>Sources that cannot cheaply count their items, such as database
+ * cursors, may report an {@link #UNKNOWN_SIZE unknown size}. Paginated
+ * menus then discover whether a next page exists by requesting one item
+ * more than fits on a page.
+ */
+public interface PaginatedItemSource {
+
+    /**
+     * Size reported by sources that do not know their total amount of items.
+     */
+    int UNKNOWN_SIZE = -1;
+
+    /**
+     * Returns the total amount of items provided by this source.
+     *
+     * @return item count, or {@link #UNKNOWN_SIZE} if the amount is unknown
+     */
+    int size();
+
+    /**
+     * Returns the items of this source in a range.
+     *
+     * <p>The returned list may contain fewer than {@code limit} items
+     * if the end of the source is reached.
+     *
+     * @param offset index of the first item
+     * @param limit maximum amount of items to return
+     * @return items in the range
+     */
+    List<SlotSettings> slice(int offset, int limit);
+
+    /**
+     * Returns a source backed by a list of items.
+     *
+     * <p>The list is not copied, any changes to the list will be visible
+     * to pages that are created afterwards.
+     *
+     * @param items backing list
+     * @return item source
+     */
+    static PaginatedItemSource of(List<SlotSettings> items) {
+        return mapped(items, Function.identity());
+    }
+
+    /**
+     * Returns a source backed by a list of static items.
+     *
+     * <p>The list is not copied, and items are only converted to slot
+     * settings once the page they belong to is created.
+     *
+     * @param items backing list
+     * @return item source
+     */
+    static PaginatedItemSource ofItems(List<ItemStack> items) {
+        return mapped(items, item -> SlotSettings.builder().itemTemplate(new StaticItemTemplate(item)).build());
+    }
+
+    /**
+     * Returns a source backed by a list of item templates.
+     *
+     * <p>The list is not copied, and templates are only converted to slot
+     * settings once the page they belong to is created.
+     *
+     * @param items backing list
+     * @return item source
+     */
+    static PaginatedItemSource ofTemplates(List<? extends ItemStackTemplate> items) {
+        return mapped(items, item -> SlotSettings.builder().itemTemplate(item).build());
+    }
+
+    /**
+     * Returns a source of an unknown size that reads items with a function.
+     *
+     * <p>The function is given the offset of the first item and the maximum
+     * amount of items to return, for example to run a database query with a
+     * matching offset and limit.
+     *
+     * @param slicer function returning the items in a range
+     * @return item source
+     */
+    static PaginatedItemSource unsized(BiFunction<Integer, Integer, List<SlotSettings>> slicer) {
+        return new PaginatedItemSource() {
+            @Override
+            public int size() {
+                return UNKNOWN_SIZE;
+            }
+
+            @Override
+            public List<SlotSettings> slice(int offset, int limit) {
+                return slicer.apply(offset, limit);
+            }
+        };
+    }
+
+    /* Returns a source backed by a list whose elements are converted when sliced */
+    private static <T> PaginatedItemSource mapped(List<T> items, Function<? super T, SlotSettings> converter) {
+        return new PaginatedItemSource() {
+            @Override
+            public int size() {
+                return items.size();
+            }
+
+            @Override
+            public List<SlotSettings> slice(int offset, int limit) {
+                int from = Math.min(offset, items.size());
+                int to = Math.min(from + limit, items.size());
+                List<SlotSettings> slice = new ArrayList<>(to - from);
+                for (T item : items.subList(from, to)) {
+                    slice.add(converter.apply(item));
+                }
+                return slice;
+            }
+        };
+    }
+}
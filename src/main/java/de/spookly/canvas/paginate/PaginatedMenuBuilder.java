@@ -33,9 +33,10 @@ import de.spookly.canvas.template.ItemStackTemplate;
 import de.spookly.canvas.template.StaticItemTemplate;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.function.Consumer;
 
 /**
@@ -45,6 +46,8 @@ public class PaginatedMenuBuilder extends AbstractPaginatedMenuBuilder<Paginated
 
     private Mask slots;
     private List<SlotSettings> items = new ArrayList<>();
+    private PaginatedItemSource itemSource;
+    private int maxLoadedPages = 8;
 
     private PaginatedMenuBuilder(Menu.Builder<?> pageBuilder) {
         super(pageBuilder);
@@ -125,6 +128,38 @@ public class PaginatedMenuBuilder extends AbstractPaginatedMenuBuilder<Paginated
         return this;
     }
 
+    /**
+     * Sets the source that lazily built menus read their items from.
+     *
+     * <p>When a source is set, any items added to this builder are
+     * ignored by {@link #buildLazy()}.
+     *
+     * @param itemSource item source
+     * @return fluent pattern
+     */
+    public PaginatedMenuBuilder itemSource(PaginatedItemSource itemSource) {
+        this.itemSource = itemSource;
+        return this;
+    }
+
+    /**
+     * Sets the maximum amount of pages a lazily built menu keeps in memory.
+     *
+     * <p>Pages that are currently being viewed are never discarded, so the
+     * amount of loaded pages may temporarily exceed this limit.
+     *
+     * @param maxLoadedPages maximum amount of loaded pages
+     * @return fluent pattern
+     * @throws IllegalArgumentException if the limit is less than 1
+     */
+    public PaginatedMenuBuilder maxLoadedPages(int maxLoadedPages) {
+        if (maxLoadedPages < 1) {
+            throw new IllegalArgumentException("max loaded pages must be at least 1");
+        }
+        this.maxLoadedPages = maxLoadedPages;
+        return this;
+    }
+
     /**
      * Builds the pages of the menu.
      *
@@ -132,51 +167,82 @@ public class PaginatedMenuBuilder extends AbstractPaginatedMenuBuilder<Paginated
      */
     public List<Menu> build() {
         List<Menu> pages = new ArrayList<>();
-        List<SlotSettings> items = new ArrayList<>(this.items);
+        int[] validSlots = getValidSlots();
+        int cursor = 0;
 
         do {
-            Menu page = getPageBuilder().build();
-            if (!getNewMenuModifiers().isEmpty()) {
-                for (Consumer<Menu> menuModifier : getNewMenuModifiers()) {
-                    menuModifier.accept(page);
-                }
-            }
-            List<Integer> validSlots = getValidSlots(page);
-            getPreviousButtonSlots().forEach(prevIndex -> {
-                setPaginationIcon(page, prevIndex, getPreviousButtonEmpty());
-            });
-            getNextButtonSlots().forEach(nextIndex -> {
-                setPaginationIcon(page, nextIndex, getNextButtonEmpty());
-            });
-            Iterator<Integer> slotIterator = validSlots.iterator();
-            while (!items.isEmpty() && slotIterator.hasNext()) {
-                int slotIndex = slotIterator.next();
-                if (page.getDimensions().getArea() > slotIndex) {
-                    SlotSettings item = items.remove(0);
-                    Slot slot = page.getSlot(slotIndex);
-                    slot.setSettings(item);
-                }
+            Menu page = newPage();
+            for (int i = 0; i < validSlots.length && cursor < items.size(); i++) {
+                Slot slot = page.getSlot(validSlots[i]);
+                slot.setSettings(items.get(cursor++));
             }
 
             pages.add(page);
-        } while (!items.isEmpty());
+        } while (cursor < items.size() && validSlots.length > 0);
 
         linkPages(pages);
         setPageTitles(pages);
         return pages;
     }
 
-    /* Helper method to check if a menu can fit an item into a slot masks slots */
-    private List<Integer> getValidSlots(Menu menu) {
-        List<Integer> valid = new ArrayList<>();
-        if (slots != null) {
-            for (int slot : slots) {
-                if (slot >= 0 && slot < menu.getDimensions().getArea()) {
-                    valid.add(slot);
-                }
+    /**
+     * Builds a paginated menu that only creates its pages once they are
+     * opened by a player.
+     *
+     * <p>Items are read from the {@link #itemSource(PaginatedItemSource) item source}
+     * if one is set, or from the items added to this builder otherwise.
+     *
+     * @return lazy paginated menu
+     */
+    public LazyPaginatedMenu buildLazy() {
+        PaginatedItemSource source = itemSource != null
+                ? itemSource
+                : PaginatedItemSource.of(new ArrayList<>(items));
+        return new LazyPaginatedMenu(this, source, maxLoadedPages);
+    }
+
+    /**
+     * Internal helper method to create a new empty page.
+     *
+     * @return new page
+     */
+    Menu newPage() {
+        Menu page = getPageBuilder().build();
+        if (!getNewMenuModifiers().isEmpty()) {
+            for (Consumer<Menu> menuModifier : getNewMenuModifiers()) {
+                menuModifier.accept(page);
+            }
+        }
+        getPreviousButtonSlots().forEach(prevIndex -> {
+            setPaginationIcon(page, prevIndex, getPreviousButtonEmpty());
+        });
+        getNextButtonSlots().forEach(nextIndex -> {
+            setPaginationIcon(page, nextIndex, getNextButtonEmpty());
+        });
+        return page;
+    }
+
+    /**
+     * Internal helper method to get the slots of a page that items
+     * can be inserted into, in insertion order.
+     *
+     * @return valid slot indexes
+     */
+    int[] getValidSlots() {
+        if (slots == null) {
+            return new int[0];
+        }
+        int area = getPageBuilder().getDimensions().getArea();
+        int[] valid = new int[area];
+        int count = 0;
+        PrimitiveIterator.OfInt slotIterator = slots.slotIterator();
+        while (slotIterator.hasNext()) {
+            int slot = slotIterator.nextInt();
+            if (slot >= 0 && slot < area && count < valid.length) {
+                valid[count++] = slot;
             }
         }
-        return valid;
+        return Arrays.copyOf(valid, count);
     }
 
     /**
@@ -23,31 +23,72 @@
 
 package de.spookly.canvas.slot;
 
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryAction;
 
 /**
  * Restrictions for when the execution of a Button will pass
+ *
+ * <p>Options are immutable and interned, so building options that allow
+ * the same clicks returns the same instance. Allowed clicks are compiled
+ * into a bit matrix of inventory actions and click types, making a check
+ * of a click a single lookup.
  */
 public class ClickOptions {
 
+    private static final int CLICK_TYPE_WORDS = (ClickType.values().length + 63) >>> 6;
+    private static final Map<ClickOptions, ClickOptions> INTERNED = new ConcurrentHashMap<>();
+
     /**
      * Click options that allow all actions and click types.
      */
-    public static ClickOptions ALLOW_ALL = ClickOptions.builder().allActions().allClickTypes().build();
+    public static final ClickOptions ALLOW_ALL = ClickOptions.builder().allActions().allClickTypes().build();
 
     /**
      * Click options that deny all actions and click types. 
      */
-    public static ClickOptions DENY_ALL = ClickOptions.builder().build();
+    public static final ClickOptions DENY_ALL = ClickOptions.builder().build();
 
-    private EnumSet<InventoryAction> allowedActions;
-    private EnumSet<ClickType> allowedClickTypes;
+    private final long[] allowedActions;
+    private final long[] allowedClickTypes;
+
+    // Row per inventory action, containing the allowed click types for the action
+    private final long[] allowedClicks;
     
-    private ClickOptions() {
-        
+    private ClickOptions(EnumSet<InventoryAction> actions, EnumSet<ClickType> clickTypes) {
+        this.allowedActions = toBits(actions, InventoryAction.values().length);
+        this.allowedClickTypes = toBits(clickTypes, ClickType.values().length);
+        this.allowedClicks = new long[InventoryAction.values().length * CLICK_TYPE_WORDS];
+        for (InventoryAction action : actions) {
+            System.arraycopy(allowedClickTypes, 0, allowedClicks, action.ordinal() * CLICK_TYPE_WORDS, CLICK_TYPE_WORDS);
+        }
+    }
+
+    /* Converts a set of enum constants to a bitset indexed by ordinal */
+    private static long[] toBits(EnumSet<? extends Enum<?>> values, int size) {
+        long[] bits = new long[(size + 63) >>> 6];
+        for (Enum<?> value : values) {
+            bits[value.ordinal() >>> 6] |= 1L << value.ordinal();
+        }
+        return bits;
+    }
+
+    /**
+     * Returns whether an inventory action can be performed on the button
+     * with a click type.
+     *
+     * @param action An action performed by a player
+     * @param clickType The type of click that was performed by a player
+     * @return True if the click is allowed, false otherwise
+     */
+    public boolean isAllowed(InventoryAction action, ClickType clickType) {
+        int type = clickType.ordinal();
+        return (allowedClicks[action.ordinal() * CLICK_TYPE_WORDS + (type >>> 6)] & (1L << type)) != 0;
     }
 
     /**
@@ -57,7 +98,7 @@ public class ClickOptions {
      * @return True if the action is allowed, false otherwise
      */
     public boolean isAllowedAction(InventoryAction action) {
-        return allowedActions.contains(action);
+        return (allowedActions[action.ordinal() >>> 6] & (1L << action.ordinal())) != 0;
     }
 
     /**
@@ -67,7 +108,36 @@ public class ClickOptions {
      * @return True if the action is allowed, false otherwise
      */
     public boolean isAllowedClickType(ClickType clickType) {
-        return allowedClickTypes.contains(clickType);
+        return (allowedClickTypes[clickType.ordinal() >>> 6] & (1L << clickType.ordinal())) != 0;
+    }
+
+    /**
+     * Returns whether any combination of inventory action and click type
+     * can be performed on the button.
+     *
+     * @return True if some click is allowed, false if all clicks are denied
+     */
+    public boolean isAllowingAny() {
+        for (long row : allowedClicks) {
+            if (row != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ClickOptions that = (ClickOptions) o;
+        return Arrays.equals(allowedActions, that.allowedActions)
+                && Arrays.equals(allowedClickTypes, that.allowedClickTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(allowedActions) + Arrays.hashCode(allowedClickTypes);
     }
 
     /**
@@ -164,10 +234,9 @@ public class ClickOptions {
          * @return The instance of ClickOptions
          */
         public ClickOptions build() {
-            ClickOptions options = new ClickOptions();
-            options.allowedActions = allowedActions;
-            options.allowedClickTypes = allowedClickTypes;
-            return options;
+            ClickOptions options = new ClickOptions(allowedActions, allowedClickTypes);
+            ClickOptions interned = INTERNED.putIfAbsent(options, options);
+            return interned == null ? options : interned;
         }
     }
     
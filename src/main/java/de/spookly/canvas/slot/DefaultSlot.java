@@ -34,7 +34,6 @@ import de.spookly.canvas.template.StaticItemTemplate;
 import de.spookly.canvas.type.AbstractMenu;
 import de.spookly.canvas.type.MenuHolder;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -58,12 +57,19 @@ public class DefaultSlot implements Slot {
         this(handle, index, options, null);
     }
 
+    public DefaultSlot(AbstractMenu handle, int index, SlotSettings settings) {
+        this(handle, index, settings.getClickOptions() == null ? ClickOptions.DENY_ALL : settings.getClickOptions(),
+                settings.getClickHandler());
+        this.item = settings.getItemTemplate();
+        this.arguments = settings.getItemArguments();
+    }
+
     private DefaultSlot(AbstractMenu handle, int index, ClickOptions options, ClickHandler handler) {
         Objects.requireNonNull(handle);
         this.handle = handle;
         this.index = index;
-        setClickOptions(options);
         this.handler = handler;
+        setClickOptions(options);
     }
 
     @Override
@@ -80,6 +86,7 @@ public class DefaultSlot implements Slot {
     public void setClickOptions(ClickOptions options) {
         Objects.requireNonNull(options);
         this.options = options;
+        updateInteractive();
     }
 
     @Override
@@ -108,29 +115,37 @@ public class DefaultSlot implements Slot {
     @Override
     public void setItemTemplate(ItemStackTemplate item) {
         this.item = item;
-        handle.getHolders().forEach(v -> {
-            Inventory inventory = v.getInventory();
-            inventory.setItem(index, getItem(v.getViewer()));
-        });
+        handle.renderSlot(index);
+    }
+
+    @Override
+    public ItemStackTemplate getItemTemplate() {
+        return item;
+    }
+
+    @Override
+    public void invalidate() {
+        handle.invalidateSlot(index);
+    }
+
+    @Override
+    public void dependOn(Object key) {
+        handle.addSlotDependency(index, key);
     }
 
     @Override
     public ItemStack getRawItem(Player viewer) {
-        if (!handle.isOpen(viewer)) {
-            throw new IllegalStateException("Player not viewing parent menu");
-        }
-        MenuHolder menu = (MenuHolder) viewer.getOpenInventory().getTopInventory().getHolder();
+        MenuHolder menu = handle.getHolder(viewer)
+                .orElseThrow(() -> new IllegalStateException("Player not viewing parent menu"));
         return menu.getInventory().getItem(getIndex());
     }
 
     @Override
     public void setRawItem(Player viewer, ItemStack item) {
-        Optional<MenuHolder> menu = handle.getHolders().stream()
-                .filter(v -> v.getViewer().equals(viewer)).findFirst();
-        if (!menu.isPresent()) {
-            throw new IllegalStateException("Player not viewing parent menu");
-        }
-        menu.get().getInventory().setItem(getIndex(), item);
+        MenuHolder menu = handle.getHolder(viewer)
+                .orElseThrow(() -> new IllegalStateException("Player not viewing parent menu"));
+        menu.getInventory().setItem(getIndex(), item);
+        menu.invalidate(getIndex());
     }
 
     @Override
@@ -141,6 +156,12 @@ public class DefaultSlot implements Slot {
     @Override
     public void setClickHandler(ClickHandler handler) {
         this.handler = handler;
+        updateInteractive();
+    }
+
+    /* Updates whether clicks on this slot need to be dispatched by the menu */
+    private void updateInteractive() {
+        handle.setInteractive(index, handler != null || options.isAllowingAny());
     }
 
     @Override
@@ -105,6 +105,53 @@ public interface Slot {
      */
     void setItemTemplate(ItemStackTemplate item);
 
+    /**
+     * Returns the item template rendered in the slot.
+     *
+     * <p>The default implementation returns null, for slots that do not
+     * expose their templates.
+     *
+     * @return item template, or null if the slot is empty
+     */
+    default ItemStackTemplate getItemTemplate() {
+        return null;
+    }
+
+    /**
+     * Re-renders the item template of the slot for all viewers on the next
+     * server tick. Unlike {@link Menu#update()}, no other slots are rendered.
+     *
+     * <p>Note: templates that cache their items, such as
+     * {@link de.spookly.canvas.template.CachedItemTemplate}, must be
+     * invalidated separately.
+     *
+     * <p>The default implementation throws, for slots that are not
+     * rendered by a menu of this library.
+     *
+     * @throws UnsupportedOperationException if the slot cannot be invalidated
+     */
+    default void invalidate() {
+        throw new UnsupportedOperationException("slot does not support invalidation");
+    }
+
+    /**
+     * Makes the slot depend on a key, so that the slot is re-rendered
+     * whenever the key is invalidated with {@link Menu#invalidate(Object)}.
+     *
+     * <p>For example, slots displaying the balance of a player may depend
+     * on a key such as {@code "balance"} that is invalidated whenever a
+     * balance changes.
+     *
+     * <p>The default implementation throws, for slots that are not
+     * rendered by a menu of this library.
+     *
+     * @param key dependency key
+     * @throws UnsupportedOperationException if the slot cannot depend on keys
+     */
+    default void dependOn(Object key) {
+        throw new UnsupportedOperationException("slot does not support dependencies");
+    }
+
     /**
      * Gets the raw item currently in the opened menu inventory a {@link Player}
      * has open.
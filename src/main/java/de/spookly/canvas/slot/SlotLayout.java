@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.slot;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.spookly.canvas.Menu;
+
+/**
+ * An immutable layout of slot settings that menus can be built from.
+ *
+ * <p>Menus built from a layout share it instead of creating a slot for
+ * every index up front. A slot of such a menu is only created once it is
+ * accessed through the menu, for example to change its item, and starts
+ * out with the settings of the layout. Layouts are therefore a cheap way
+ * to create many menus with identical decoration.
+ *
+ * <p>A layout is most easily created from an existing menu:
+ * <pre>{@code
+ * Menu prototype = ChestMenu.builder(3).build();
+ * border.apply(prototype);
+ * SlotLayout layout = SlotLayout.from(prototype);
+ *
+ * Menu menu = ChestMenu.builder(3).layout(layout).build();
+ * }</pre>
+ */
+public final class SlotLayout {
+
+    private final Menu.Dimension dimensions;
+    private final SlotSettings[] settings;
+
+    private SlotLayout(Menu.Dimension dimensions, SlotSettings[] settings) {
+        this.dimensions = dimensions;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns the dimensions of menus this layout is applicable for.
+     *
+     * @return layout dimensions
+     */
+    public Menu.Dimension getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the settings of the slot at an index.
+     *
+     * @param index slot index
+     * @return slot settings, or null if the slot has no settings
+     */
+    public SlotSettings getSettings(int index) {
+        return settings[index];
+    }
+
+    /**
+     * Returns whether clicks on the slot at an index need to be
+     * dispatched, which is the case if the slot has a click handler
+     * or its click options allow any click.
+     *
+     * @param index slot index
+     * @return true if the slot is interactive, false otherwise
+     */
+    public boolean isInteractive(int index) {
+        SlotSettings slot = settings[index];
+        return slot != null && (slot.getClickHandler() != null
+                || (slot.getClickOptions() != null && slot.getClickOptions().isAllowingAny()));
+    }
+
+    /**
+     * Creates a layout from the current settings of the slots of a menu.
+     *
+     * @param menu menu to copy settings from
+     * @return slot layout
+     */
+    public static SlotLayout from(Menu menu) {
+        Builder builder = builder(menu.getDimensions());
+        for (Slot slot : menu) {
+            SlotSettings settings = slot.getSettings();
+            if (settings.getItemTemplate() != null || settings.getClickHandler() != null
+                    || settings.getClickOptions() != ClickOptions.DENY_ALL || settings.getItemArguments() != null) {
+                builder.slot(slot.getIndex(), settings);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a new builder for specific dimensions.
+     *
+     * @param dimensions menu dimensions
+     * @return layout builder
+     */
+    public static Builder builder(Menu.Dimension dimensions) {
+        return new Builder(dimensions);
+    }
+
+    /**
+     * A builder to create a SlotLayout.
+     */
+    public static class Builder {
+
+        private final Menu.Dimension dimensions;
+        private final SlotSettings[] settings;
+
+        private Builder(Menu.Dimension dimensions) {
+            this.dimensions = dimensions;
+            this.settings = new SlotSettings[dimensions.getArea()];
+        }
+
+        /**
+         * Sets the settings of the slot at an index.
+         *
+         * @param index slot index
+         * @param settings slot settings, or null to leave the slot empty
+         * @return fluent pattern
+         * @throws IllegalArgumentException if the index is outside the dimensions
+         */
+        public Builder slot(int index, SlotSettings settings) {
+            if (index < 0 || index >= this.settings.length) {
+                throw new IllegalArgumentException("index must be a value from 0 to " + (this.settings.length - 1));
+            }
+            this.settings[index] = settings;
+            return this;
+        }
+
+        /**
+         * Sets the settings of multiple slots.
+         *
+         * @param indices slot indices
+         * @param settings slot settings, or null to leave the slots empty
+         * @return fluent pattern
+         * @throws IllegalArgumentException if an index is outside the dimensions
+         */
+        public Builder slots(Collection<Integer> indices, SlotSettings settings) {
+            for (int index : indices) {
+                slot(index, settings);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the layout from the given data.
+         *
+         * @return slot layout
+         */
+        public SlotLayout build() {
+            return new SlotLayout(dimensions, Arrays.copyOf(settings, settings.length));
+        }
+    }
+}
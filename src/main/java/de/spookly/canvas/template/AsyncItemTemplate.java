@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.template;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import de.spookly.canvas.type.AbstractMenu;
+import de.spookly.canvas.type.MenuHolder;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * An item template that renders its item asynchronously.
+ *
+ * <p>When the item of a player is first requested, a placeholder item is
+ * rendered while the actual item is loaded. Once loading completes, the
+ * item is rendered on the main server thread in every slot of this template
+ * in the menu the player has open. Items are kept for a player until
+ * the player closes the menu, at which point any loading that is still in
+ * progress is cancelled. Loading can also be started ahead of time with
+ * {@link #prefetch(Player)}.
+ *
+ * <p>If loading the item of a player fails, the failure is logged and the
+ * placeholder is kept for the player until the template is released, so
+ * that an unavailable resource is not queried again on every render.
+ *
+ * <p>Loading functions run outside the main server thread and should
+ * therefore not access any state of the server that is not thread-safe.
+ */
+public class AsyncItemTemplate implements ItemStackTemplate {
+
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Plugin plugin;
+    private final ItemStackTemplate placeholder;
+    private final Function<Player, CompletableFuture<ItemStack>> loader;
+    private final Map<UUID, CompletableFuture<ItemStack>> loading = new ConcurrentHashMap<>();
+    private final Map<UUID, Optional<ItemStack>> loaded = new ConcurrentHashMap<>();
+    private final Set<UUID> failed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a template that renders the item completing the future
+     * returned by a loading function.
+     *
+     * <p>Futures are cancelled once the player closes the menu. Whether
+     * this stops the work completing the future is up to the loader.
+     *
+     * @param plugin plugin rendering loaded items on the main server thread
+     * @param placeholder template rendered while an item is loading
+     * @param loader function returning a future item for a player
+     */
+    public AsyncItemTemplate(Plugin plugin, ItemStackTemplate placeholder, Function<Player, CompletableFuture<ItemStack>> loader) {
+        this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
+        this.placeholder = placeholder;
+        this.loader = Objects.requireNonNull(loader, "loader cannot be null");
+    }
+
+    /**
+     * Creates a template that renders the item returned by a loading
+     * function, which is run on a virtual thread. The thread is interrupted
+     * if the player closes the menu before the item is loaded.
+     *
+     * @param plugin plugin rendering loaded items on the main server thread
+     * @param placeholder item rendered while an item is loading
+     * @param loader function returning the item for a player
+     * @return async template
+     */
+    public static AsyncItemTemplate supplyAsync(Plugin plugin, ItemStack placeholder, Function<Player, ItemStack> loader) {
+        Objects.requireNonNull(loader, "loader cannot be null");
+        return new AsyncItemTemplate(plugin, new StaticItemTemplate(placeholder), player -> {
+            CompletableFuture<ItemStack> result = new CompletableFuture<>();
+            Future<?> task = VIRTUAL_THREAD_EXECUTOR.submit(() -> {
+                try {
+                    result.complete(loader.apply(player));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+            // Cancelling a CompletableFuture does not interrupt the thread completing it
+            result.whenComplete((item, error) -> {
+                if (result.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+            return result;
+        });
+    }
+
+    @Override
+    public ItemStack getItem(Player player) {
+        UUID id = player.getUniqueId();
+        Optional<ItemStack> item = loaded.get(id);
+        if (item != null) {
+            return item.map(ItemStack::clone).orElse(null);
+        }
+
+        if (!loading.containsKey(id) && !failed.contains(id)) {
+            load(player);
+        }
+        return placeholder == null ? null : placeholder.getItem(player);
+    }
+
+    @Override
+    public void prefetch(Player player) {
+        UUID id = player.getUniqueId();
+        if (!loaded.containsKey(id) && !loading.containsKey(id) && !failed.contains(id)) {
+            load(player);
+        }
+    }
+
+    @Override
+    public void release(Player player) {
+        UUID id = player.getUniqueId();
+        CompletableFuture<ItemStack> future = loading.remove(id);
+        if (future != null) {
+            future.cancel(true);
+        }
+        loaded.remove(id);
+        failed.remove(id);
+        if (placeholder != null) {
+            placeholder.release(player);
+        }
+    }
+
+    /**
+     * Returns whether the item of a player has finished loading.
+     *
+     * @param player player
+     * @return true if the item is loaded, false otherwise
+     */
+    public boolean isLoaded(Player player) {
+        return loaded.containsKey(player.getUniqueId());
+    }
+
+    /* Starts loading the item of a player and renders it on the main thread once loaded */
+    private void load(Player player) {
+        CompletableFuture<ItemStack> future = loader.apply(player);
+        loading.put(player.getUniqueId(), future);
+        future.whenCompleteAsync((item, error) -> complete(player, future, item, error),
+                Bukkit.getScheduler().getMainThreadExecutor(plugin));
+    }
+
+    private void complete(Player player, CompletableFuture<ItemStack> future, ItemStack item, Throwable error) {
+        // The player closed the menu while the item was loading
+        if (!loading.remove(player.getUniqueId(), future)) {
+            return;
+        }
+
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (!(cause instanceof CancellationException)) {
+                // Keep the placeholder instead of loading again on every render
+                failed.add(player.getUniqueId());
+                plugin.getLogger().log(Level.WARNING, "Failed to load item for " + player.getName(), cause);
+            }
+            return;
+        }
+
+        loaded.put(player.getUniqueId(), Optional.ofNullable(item).map(ItemStack::clone));
+        if (player.isOnline()) {
+            render(player);
+        }
+    }
+
+    /* Renders the loaded item in all slots of this template in the menu a player has open */
+    private void render(Player player) {
+        InventoryHolder holder = player.getOpenInventory().getTopInventory().getHolder();
+        if (!(holder instanceof MenuHolder)) {
+            return;
+        }
+
+        MenuHolder menuHolder = (MenuHolder) holder;
+        AbstractMenu menu = (AbstractMenu) menuHolder.getMenu();
+        for (int index = 0; index < menu.getDimensions().getArea(); index++) {
+            if (menu.getItemTemplate(index) == this) {
+                menuHolder.render(index, getItem(player));
+            }
+        }
+    }
+}
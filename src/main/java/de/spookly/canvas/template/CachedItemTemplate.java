@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.template;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * An item template that remembers the item rendered for each player
+ * by another template.
+ *
+ * <p>The cached item of a player is reused until it expires, the
+ * invalidation key computed for the player changes, or the cache is
+ * invalidated explicitly. Cached items are also released once a player
+ * closes a menu rendering this template, unless the player navigates to
+ * another menu rendering it as well.
+ *
+ * <p>For example, an icon displaying the balance of a player may only
+ * need to be re-rendered when the balance changes:
+ * <pre>{@code
+ * ItemStackTemplate balance = CachedItemTemplate.builder(p -> createBalanceIcon(p))
+ *         .invalidationKey(p -> economy.getBalance(p))
+ *         .build();
+ * }</pre>
+ */
+public class CachedItemTemplate implements ItemStackTemplate {
+
+    private final ItemStackTemplate template;
+    private final long expireAfterNanos;
+    private final Function<Player, ?> invalidationKey;
+    private final Map<UUID, Entry> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    protected CachedItemTemplate(ItemStackTemplate template, Duration expireAfter, Function<Player, ?> invalidationKey) {
+        this.template = Objects.requireNonNull(template, "template cannot be null");
+        this.expireAfterNanos = expireAfter == null ? 0 : expireAfter.toNanos();
+        this.invalidationKey = invalidationKey;
+    }
+
+    @Override
+    public ItemStack getItem(Player player) {
+        Object key = invalidationKey == null ? null : invalidationKey.apply(player);
+        long now = System.nanoTime();
+        Entry entry = cache.get(player.getUniqueId());
+
+        if (entry != null && !entry.isExpired(now) && Objects.equals(entry.key, key)) {
+            hits.increment();
+            return entry.item == null ? null : entry.item.clone();
+        }
+
+        misses.increment();
+        ItemStack item = template.getItem(player);
+        cache.put(player.getUniqueId(), new Entry(item == null ? null : item.clone(), key,
+                expireAfterNanos > 0, now + expireAfterNanos));
+        return item;
+    }
+
+    @Override
+    public void prefetch(Player player) {
+        template.prefetch(player);
+    }
+
+    @Override
+    public void release(Player viewer) {
+        invalidate(viewer);
+        template.release(viewer);
+    }
+
+    /**
+     * Returns the template that renders items on a cache miss.
+     *
+     * @return cached template
+     */
+    public ItemStackTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Forgets the cached items of all players, forcing the next render
+     * of every player to use the cached template.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Forgets the cached item of a player, forcing the next render for
+     * the player to use the cached template.
+     *
+     * @param player player
+     */
+    public void invalidate(Player player) {
+        cache.remove(player.getUniqueId());
+    }
+
+    /**
+     * Returns the amount of renders that were served from the cache.
+     *
+     * @return cache hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the amount of renders that required the cached template
+     * to render an item.
+     *
+     * @return cache miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns a new builder caching the items of a template.
+     *
+     * @param template template to cache
+     * @return cached template builder
+     */
+    public static Builder builder(ItemStackTemplate template) {
+        return new Builder(template);
+    }
+
+    /* A cached item of a single player */
+    private static final class Entry {
+
+        private final ItemStack item;
+        private final Object key;
+        private final boolean expires;
+        private final long expiresAt;
+
+        private Entry(ItemStack item, Object key, boolean expires, long expiresAt) {
+            this.item = item;
+            this.key = key;
+            this.expires = expires;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            // nanoTime may be negative, so only the difference of two times is meaningful
+            return expires && now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * A builder to create a CachedItemTemplate.
+     */
+    public static class Builder {
+
+        private final ItemStackTemplate template;
+        private Duration expireAfter;
+        private Function<Player, ?> invalidationKey;
+
+        protected Builder(ItemStackTemplate template) {
+            this.template = template;
+        }
+
+        /**
+         * Sets the duration after which a cached item is rendered again.
+         *
+         * <p>By default, cached items do not expire.
+         *
+         * @param expireAfter time to keep cached items, or null to never expire
+         * @return fluent pattern
+         * @throws IllegalArgumentException if the duration is not positive
+         */
+        public Builder expireAfter(Duration expireAfter) {
+            if (expireAfter != null && (expireAfter.isNegative() || expireAfter.isZero())) {
+                throw new IllegalArgumentException("expireAfter must be positive");
+            }
+            this.expireAfter = expireAfter;
+            return this;
+        }
+
+        /**
+         * Sets a function computing the invalidation key of a player.
+         *
+         * <p>The key is computed on every render and compared to the key
+         * computed when the item was cached. If the keys are not equal,
+         * the item is rendered again. The function should therefore be
+         * considerably cheaper than the cached template.
+         *
+         * @param invalidationKey invalidation key function, or null
+         * @return fluent pattern
+         */
+        public Builder invalidationKey(Function<Player, ?> invalidationKey) {
+            this.invalidationKey = invalidationKey;
+            return this;
+        }
+
+        /**
+         * Builds the template from the given data.
+         *
+         * @return cached template
+         */
+        public CachedItemTemplate build() {
+            return new CachedItemTemplate(template, expireAfter, invalidationKey);
+        }
+    }
+}
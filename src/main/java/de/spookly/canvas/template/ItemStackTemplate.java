@@ -39,4 +39,29 @@ public interface ItemStackTemplate {
      * @return current item the player can see
      */
     ItemStack getItem(Player player);
+
+    /**
+     * Called when this template is likely to be rendered for a player soon,
+     * for example because it is on a page next to the page the player is
+     * viewing. Templates that are slow to render may start preparing the
+     * item of the player in the background.
+     *
+     * <p>Anything prepared for the player is freed by {@link #release(Player)}.
+     *
+     * @param player player the template will be rendered for
+     */
+    default void prefetch(Player player) {
+    }
+
+    /**
+     * Called when a player closes a menu that renders this template,
+     * allowing the template to free any state kept for the player.
+     *
+     * <p>Templates that are also rendered by the menu the player navigates
+     * to, such as buttons shared between pages, are not released.
+     *
+     * @param player player that closed the menu
+     */
+    default void release(Player player) {
+    }
 }
@@ -24,16 +24,21 @@
 package de.spookly.canvas.type;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import de.spookly.canvas.Menu;
 import de.spookly.canvas.mask.Mask;
 import de.spookly.canvas.slot.Slot;
+import de.spookly.canvas.slot.SlotLayout;
+import de.spookly.canvas.slot.SlotSettings;
+import de.spookly.canvas.template.ItemStackTemplate;
+import de.spookly.canvas.template.StaticItemTemplate;
 import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 
-import io.papermc.paper.adventure.PaperAdventure;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.entity.CraftPlayer;
@@ -42,7 +47,6 @@ import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
-import de.spookly.canvas.ArrayIterator;
 import de.spookly.canvas.slot.DefaultSlot;
 
 /**
@@ -54,11 +58,33 @@ public abstract class AbstractMenu implements Menu {
     private Menu parent;
     private boolean redraw;
     private DefaultSlot[] slots;
+    private SlotLayout layout;
     private CloseHandler handler;
     private CursorDropHandler cursorDropHandler;
+    private TemplateReleaser templateReleaser;
     private final Set<MenuHolder> holders = new HashSet<>();
+    private final Set<MenuHolder> holdersView = Collections.unmodifiableSet(holders);
+    private final Map<UUID, MenuHolder> holdersByViewer = new HashMap<>();
+
+    // Slots changed while a batch is running, rendered once the batch completes
+    private final BitSet dirtySlots = new BitSet();
+    private int batchDepth;
+
+    // Updates requested to be performed by the update scheduler
+    private volatile boolean updateRequested;
+    private volatile boolean titleUpdateRequested;
+    private final BitSet invalidSlots = new BitSet();
+    private final Map<Object, BitSet> slotDependencies = new HashMap<>();
+
+    // Slots that have a click handler or allow any click
+    private final BitSet interactiveSlots = new BitSet();
+
+    // Pool the menu can be returned to with MenuPool#release(Menu)
+    private MenuPool pool;
+    private MenuPool.Key poolKey;
 
     // Bukkit Inventory information
+    private final Component initialTitle;
     protected Component inventoryTitle;
     protected int inventorySlots;
     protected InventoryType inventoryType;
@@ -67,6 +93,7 @@ public abstract class AbstractMenu implements Menu {
         if (title == null) {
             title = InventoryType.CHEST.defaultTitle();
         }
+        this.initialTitle = title;
         this.inventoryTitle = title;
         this.inventorySlots = inventorySlots;
         this.parent = parent;
@@ -79,6 +106,7 @@ public abstract class AbstractMenu implements Menu {
         if (title == null) {
             title = type.defaultTitle();
         }
+        this.initialTitle = title;
         this.inventoryTitle = title;
         this.inventoryType = type;
         this.parent = parent;
@@ -87,12 +115,30 @@ public abstract class AbstractMenu implements Menu {
     }
 
     /**
-     * Initial method called to fill the Slots of the menu
+     * Initial method called to prepare the Slots of the menu. Slots
+     * themselves are created once they are first accessed.
      */
     protected void generateSlots() {
         this.slots = new DefaultSlot[getDimensions().getArea()];
-        for (int i = 0 ; i < slots.length ; i++) {
-            this.slots[i] = new DefaultSlot(this, i);
+    }
+
+    /* Sets the layout that slots of the menu are created from */
+    void setLayout(SlotLayout layout) {
+        if (layout != null && layout.getDimensions().getArea() != slots.length) {
+            throw new IllegalArgumentException("layout does not match menu dimensions");
+        }
+        this.layout = layout;
+        resetSlots();
+    }
+
+    /* Discards all created slots, reverting every slot to the settings of the layout */
+    private void resetSlots() {
+        Arrays.fill(slots, null);
+        interactiveSlots.clear();
+        if (layout != null) {
+            for (int index = 0; index < slots.length; index++) {
+                interactiveSlots.set(index, layout.isInteractive(index));
+            }
         }
     }
 
@@ -118,36 +164,47 @@ public abstract class AbstractMenu implements Menu {
                 return;
             }
 
-            Inventory inventory;
-
             if (isRedraw() && open.getDimensions().equals(getDimensions())) {
-                inventory = holder.getInventory();
-                ((AbstractMenu) open).closedByPlayer(viewer, false);
+                ((AbstractMenu) open).closedByPlayer(viewer, false, this);
+                updateInventoryContents(viewer, holder);
+                updateInventoryTitle(viewer);
             } else {
-                open.close(viewer);
-                inventory = createInventory(holder);
+                // The new inventory is opened with the title of this menu, so the
+                // title does not need to be sent separately
+                ((AbstractMenu) open).closedByPlayer(viewer, true, this);
+                viewer.closeInventory();
+                Inventory inventory = createInventory(holder);
                 holder.setInventory(inventory);
+                updateInventoryContents(viewer, holder);
                 viewer.openInventory(inventory);
             }
 
-            updateInventoryContents(viewer, inventory);
-            updateInventoryTitle(viewer);
             holder.setMenu(this);
-            holders.add(holder);
+            addHolder(holder);
         } else {
             // Create new MenuHolder for the player
             MenuHolder holder = new MenuHolder(viewer, this);
             Inventory inventory = createInventory(holder);
-            updateInventoryContents(viewer, inventory);
             holder.setInventory(inventory);
+            updateInventoryContents(viewer, holder);
             viewer.openInventory(inventory);
-            holders.add(holder);
+            addHolder(holder);
         }
     }
 
+    /* Starts tracking a holder as a viewer of this menu */
+    private void addHolder(MenuHolder holder) {
+        holders.add(holder);
+        holdersByViewer.put(holder.getViewer().getUniqueId(), holder);
+    }
+
     @Override
     public void title(Component title) {
         this.inventoryTitle = title;
+        if (!holders.isEmpty()) {
+            titleUpdateRequested = true;
+            MenuUpdateScheduler.getInstance().schedule(this);
+        }
     }
 
     @Override
@@ -161,18 +218,26 @@ public abstract class AbstractMenu implements Menu {
                 : Bukkit.createInventory(holder, inventoryType, inventoryTitle);
     }
 
-    private void updateInventoryContents(Player viewer, Inventory inventory) {
-        for (Slot slot : slots) {
-            inventory.setItem(slot.getIndex(), slot.getItem(viewer));
+    /* Renders every slot to the holders inventory, writing only slots that changed since the last render */
+    private void updateInventoryContents(Player viewer, MenuHolder holder) {
+        for (int index = 0; index < slots.length; index++) {
+            holder.render(index, renderItem(index, viewer));
         }
-        viewer.updateInventory();
     }
 
+    /* Renders the item of a slot for a viewer without creating the slot */
+    private ItemStack renderItem(int index, Player viewer) {
+        ItemStackTemplate template = getItemTemplate(index);
+        return template == null ? null : template.getItem(viewer);
+    }
+
+    /* Reopens the screen of the viewer with the current title and re-sends the contents it cleared */
     private void updateInventoryTitle(Player viewer) {
         ServerPlayer player = ((CraftPlayer)viewer).getHandle();
         AbstractContainerMenu container = player.containerMenu;
-        ClientboundOpenScreenPacket packet = new ClientboundOpenScreenPacket(container.containerId, container.getType(), PaperAdventure.asVanilla(inventoryTitle));
+        ClientboundOpenScreenPacket packet = new ClientboundOpenScreenPacket(container.containerId, container.getType(), TitleCache.asVanilla(inventoryTitle));
         player.connection.send(packet);
+        container.sendAllDataToRemote();
     }
 
     @Override
@@ -182,10 +247,7 @@ public abstract class AbstractMenu implements Menu {
 
     @Override
     public boolean isOpen(Player viewer) {
-        InventoryHolder currentInventory =
-                viewer.getOpenInventory().getTopInventory().getHolder();
-        return currentInventory instanceof MenuHolder &&
-                ((MenuHolder) currentInventory).getMenu() == this;
+        return holdersByViewer.containsKey(viewer.getUniqueId());
     }
 
     @Override
@@ -201,51 +263,310 @@ public abstract class AbstractMenu implements Menu {
 
     @Override
     public void update() {
-        getViewers().forEach(this::update);
+        for (MenuHolder holder : holders) {
+            updateInventoryContents(holder.getViewer(), holder);
+        }
     }
 
     @Override
-    public void update(Player viewer) throws IllegalStateException {
-        if (!isOpen(viewer)) {
-            return;
+    public void requestUpdate() {
+        updateRequested = true;
+        MenuUpdateScheduler.getInstance().schedule(this);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        BitSet dependents = slotDependencies.get(key);
+        if (dependents != null && !holders.isEmpty()) {
+            invalidSlots.or(dependents);
+            MenuUpdateScheduler.getInstance().schedule(this);
         }
+    }
 
-        InventoryHolder openInventory = viewer.getOpenInventory().getTopInventory().getHolder();
-        updateInventoryContents(viewer, openInventory.getInventory());
+    /**
+     * Internal helper method to re-render a slot for all viewers on the
+     * next tick, called by slots when they are invalidated.
+     *
+     * @param index slot index
+     * @see Slot#invalidate()
+     */
+    public void invalidateSlot(int index) {
+        if (!holders.isEmpty()) {
+            invalidSlots.set(index);
+            MenuUpdateScheduler.getInstance().schedule(this);
+        }
+    }
+
+    /**
+     * Internal helper method to make a slot depend on a key, called by
+     * slots when a dependency is added.
+     *
+     * @param index slot index
+     * @param key dependency key
+     * @see Slot#dependOn(Object)
+     */
+    public void addSlotDependency(int index, Object key) {
+        slotDependencies.computeIfAbsent(key, k -> new BitSet()).set(index);
+    }
+
+    /* Performs the updates requested since the menu was last queued by the update scheduler */
+    void performRequestedUpdates() {
+        if (updateRequested) {
+            updateRequested = false;
+            invalidSlots.clear();
+            update();
+        } else if (!invalidSlots.isEmpty()) {
+            for (MenuHolder holder : holders) {
+                Player viewer = holder.getViewer();
+                for (int index = invalidSlots.nextSetBit(0); index >= 0; index = invalidSlots.nextSetBit(index + 1)) {
+                    holder.render(index, renderItem(index, viewer));
+                }
+            }
+            invalidSlots.clear();
+        }
+        if (titleUpdateRequested) {
+            titleUpdateRequested = false;
+            for (MenuHolder holder : holders) {
+                updateInventoryTitle(holder.getViewer());
+            }
+        }
+    }
+
+    @Override
+    public void update(Player viewer) throws IllegalStateException {
+        MenuHolder holder = holdersByViewer.get(viewer.getUniqueId());
+        if (holder != null) {
+            updateInventoryContents(viewer, holder);
+        }
     }
 
     public void closedByPlayer(Player viewer, boolean triggerCloseHandler) {
-        if (!isOpen(viewer)) {
+        closedByPlayer(viewer, triggerCloseHandler, null);
+    }
+
+    /* Stops tracking a viewer that closed the menu or navigated to another menu */
+    private void closedByPlayer(Player viewer, boolean triggerCloseHandler, AbstractMenu next) {
+        MenuHolder holder = holdersByViewer.remove(viewer.getUniqueId());
+        if (holder == null) {
             return;
         }
 
-        MenuHolder holder = (MenuHolder)
-                viewer.getOpenInventory().getTopInventory().getHolder();
         holders.remove(holder);
+        if (templateReleaser != null) {
+            templateReleaser.release(viewer, this, next);
+        } else {
+            releaseTemplates(viewer, next);
+        }
         if (triggerCloseHandler) {
             getCloseHandler().ifPresent(h -> h.close(viewer, this));
         }
     }
 
+    /* Assigns the pool the menu can be returned to */
+    void setPool(MenuPool pool, MenuPool.Key poolKey) {
+        this.pool = pool;
+        this.poolKey = poolKey;
+    }
+
+    /* Returns the pool the menu was built from, or null */
+    MenuPool getPool() {
+        return pool;
+    }
+
+    /* Returns the configuration the menu was pooled with, or null */
+    MenuPool.Key getPoolKey() {
+        return poolKey;
+    }
+
+    /* Replaces the parent of a pooled menu when it is released or reused */
+    void setParent(Menu parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Resets the menu to the state it had when it was built, before it
+     * is reused from a {@link MenuPool}.
+     */
+    protected void reset() {
+        resetSlots();
+        invalidSlots.clear();
+        slotDependencies.clear();
+        dirtySlots.clear();
+        this.batchDepth = 0;
+        this.inventoryTitle = initialTitle;
+        this.handler = null;
+        this.cursorDropHandler = null;
+        this.templateReleaser = null;
+
+        // Drop updates requested for the previous use of the menu
+        MenuUpdateScheduler.getInstance().unschedule(this);
+        this.updateRequested = false;
+        this.titleUpdateRequested = false;
+    }
+
+    /* Frees any state kept by the item templates of the menu for a viewer, except templates the next menu renders too */
+    private void releaseTemplates(Player viewer, AbstractMenu next) {
+        Set<ItemStackTemplate> shared = null;
+        if (next != null) {
+            shared = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int index = 0; index < next.slots.length; index++) {
+                ItemStackTemplate template = next.getItemTemplate(index);
+                if (template != null) {
+                    shared.add(template);
+                }
+            }
+        }
+
+        for (int index = 0; index < slots.length; index++) {
+            ItemStackTemplate template = getItemTemplate(index);
+            if (template != null && (shared == null || !shared.contains(template))) {
+                template.release(viewer);
+            }
+        }
+    }
+
     public Set<MenuHolder> getHolders() {
-        return Collections.unmodifiableSet(holders);
+        return holdersView;
+    }
+
+    /**
+     * Returns the holder of the inventory a viewer of this menu has open.
+     *
+     * @param viewer player viewing the menu
+     * @return holder of the viewer, or empty if the player is not viewing the menu
+     */
+    public Optional<MenuHolder> getHolder(Player viewer) {
+        return Optional.ofNullable(holdersByViewer.get(viewer.getUniqueId()));
     }
 
+    @Override
+    public void batch(Consumer<Menu> changes) {
+        batchDepth++;
+        try {
+            changes.accept(this);
+        } finally {
+            if (--batchDepth == 0) {
+                flushDirtySlots();
+            }
+        }
+    }
+
+    /**
+     * Renders the slot at an index to all viewers of the menu. If a
+     * batch is running, the slot is rendered once the batch completes
+     * instead.
+     *
+     * @param index slot index
+     * @see #batch(Consumer)
+     */
+    public void renderSlot(int index) {
+        if (batchDepth > 0) {
+            dirtySlots.set(index);
+            return;
+        }
+
+        for (MenuHolder holder : holders) {
+            holder.render(index, renderItem(index, holder.getViewer()));
+        }
+    }
+
+    /**
+     * Returns whether clicks on a slot need to be dispatched to the slot,
+     * which is the case if the slot has a click handler or its click options
+     * allow any click.
+     *
+     * @param index slot index
+     * @return true if the slot is interactive, false if all clicks are denied
+     */
+    public boolean isInteractive(int index) {
+        return interactiveSlots.get(index);
+    }
+
+    /**
+     * Internal helper method to update whether a slot is interactive,
+     * called by slots when their click handler or options change.
+     *
+     * @param index slot index
+     * @param interactive whether the slot is interactive
+     * @see #isInteractive(int)
+     */
+    public void setInteractive(int index, boolean interactive) {
+        interactiveSlots.set(index, interactive);
+    }
+
+    /* Renders all slots changed during a batch to every holder */
+    private void flushDirtySlots() {
+        if (dirtySlots.isEmpty()) {
+            return;
+        }
+
+        for (MenuHolder holder : holders) {
+            Player viewer = holder.getViewer();
+            for (int index = dirtySlots.nextSetBit(0); index >= 0; index = dirtySlots.nextSetBit(index + 1)) {
+                holder.render(index, renderItem(index, viewer));
+            }
+        }
+        dirtySlots.clear();
+    }
+
+    /**
+     * Returns all slots that belong to this menu.
+     *
+     * <p>The returned list is a read-only view of the menu. Slots are only
+     * created once they are accessed through the list or its iterator, so
+     * iterating all slots creates every slot of the menu. To inspect the
+     * items of a menu without creating slots, use {@link #getItemTemplate(int)}.
+     *
+     * @return the menus slots
+     */
     @Override
     public List<Slot> getSlots() {
-        return Arrays.asList(slots);
+        return new AbstractList<>() {
+            @Override
+            public Slot get(int index) {
+                Objects.checkIndex(index, slots.length);
+                return getSlot(index);
+            }
+
+            @Override
+            public int size() {
+                return slots.length;
+            }
+        };
     }
 
     @Override
     public List<Slot> getSlots(Mask mask) {
         List<Slot> slots = new ArrayList<>();
-        mask.getSlots().forEach(idx -> slots.add(getSlot(idx)));
+        mask.slots().forEach(idx -> slots.add(getSlot(idx)));
         return slots;
     }
 
     @Override
     public Slot getSlot(int index) {
-        return slots[index];
+        DefaultSlot slot = slots[index];
+        if (slot == null) {
+            SlotSettings settings = layout == null ? null : layout.getSettings(index);
+            slot = settings == null ? new DefaultSlot(this, index) : new DefaultSlot(this, index, settings);
+            slots[index] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the item template rendered in the slot at an index, without
+     * creating the slot if it was not accessed before.
+     *
+     * @param index slot index
+     * @return item template, or null if the slot is empty
+     */
+    public ItemStackTemplate getItemTemplate(int index) {
+        DefaultSlot slot = slots[index];
+        if (slot != null) {
+            return slot.getItemTemplate();
+        }
+        SlotSettings settings = layout == null ? null : layout.getSettings(index);
+        return settings == null ? null : settings.getItemTemplate();
     }
 
     @Override
@@ -256,16 +577,52 @@ public abstract class AbstractMenu implements Menu {
         return getSlot(index);
     }
 
+    /**
+     * Returns an iterator over all slots of the menu. Slots are created
+     * as the iterator reaches them.
+     *
+     * @return slot iterator
+     * @see #getSlots()
+     */
     @Override
     public Iterator<Slot> iterator() {
-        return new ArrayIterator<>(slots);
+        return getSlots().iterator();
     }
 
     @Override
-    public void clear() {
-        for (Slot slot : slots) {
-            slot.setItem((ItemStack) null);
+    public void setContents(ItemStack[] contents) {
+        ItemStackTemplate[] templates = new ItemStackTemplate[contents.length];
+        for (int index = 0; index < contents.length; index++) {
+            templates[index] = contents[index] == null ? null : new StaticItemTemplate(contents[index]);
+        }
+        setTemplates(templates);
+    }
+
+    @Override
+    public void setTemplates(ItemStackTemplate[] templates) {
+        if (templates.length > slots.length) {
+            throw new IllegalArgumentException("templates must not exceed menu size of " + slots.length);
         }
+
+        batch(menu -> {
+            for (int index = 0; index < slots.length; index++) {
+                ItemStackTemplate template = index < templates.length ? templates[index] : null;
+                if (template != null || getItemTemplate(index) != null) {
+                    getSlot(index).setItemTemplate(template);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void clear() {
+        batch(menu -> {
+            for (int index = 0; index < slots.length; index++) {
+                if (slots[index] != null || getItemTemplate(index) != null) {
+                    getSlot(index).setItem((ItemStack) null);
+                }
+            }
+        });
     }
 
     @Override
@@ -284,6 +641,27 @@ public abstract class AbstractMenu implements Menu {
         return Optional.ofNullable(handler);
     }
 
+    /**
+     * Internal helper method to take over releasing the item templates
+     * of the menu when a viewer stops viewing it. Unlike the close handler,
+     * the releaser is also called when a viewer navigates to another menu.
+     *
+     * @param releaser template releaser, or null to release all templates
+     */
+    public void setTemplateReleaser(TemplateReleaser releaser) {
+        this.templateReleaser = releaser;
+    }
+
+    /**
+     * Internal helper method to get the releaser of the item templates
+     * of the menu.
+     *
+     * @return template releaser, or null if all templates are released
+     */
+    public TemplateReleaser getTemplateReleaser() {
+        return templateReleaser;
+    }
+
     @Override
     public Optional<CursorDropHandler> getCursorDropHandler() {
         return Optional.ofNullable(cursorDropHandler);
@@ -294,6 +672,25 @@ public abstract class AbstractMenu implements Menu {
         this.cursorDropHandler = handler;
     }
 
+    /**
+     * Internal hook releasing the item templates of a menu that a viewer
+     * stopped viewing, used by menus that keep templates of other menus
+     * prepared for a viewer.
+     */
+    @FunctionalInterface
+    public interface TemplateReleaser {
+
+        /**
+         * Called instead of releasing the item templates of a menu once
+         * a viewer stops viewing it.
+         *
+         * @param viewer player that stopped viewing the menu
+         * @param menu menu the player stopped viewing
+         * @param next menu the player navigated to, or null if the player closed the menu
+         */
+        void release(Player viewer, AbstractMenu menu, AbstractMenu next);
+    }
+
     /**
      * Abstract base class for builders of {@link Menu} types.
      * <p>
@@ -306,6 +703,8 @@ public abstract class AbstractMenu implements Menu {
         private Component title;
         private Menu parent;
         private boolean redraw;
+        private MenuPool pool;
+        private SlotLayout layout;
 
         public Builder(Dimension dimensions) {
             this.dimensions = dimensions;
@@ -334,6 +733,64 @@ public abstract class AbstractMenu implements Menu {
             return (T) this;
         }
 
+        /**
+         * Sets the pool that built menus are taken from.
+         *
+         * <p>Menus are only returned to the pool by {@link MenuPool#release(Menu)}.
+         *
+         * @param pool menu pool, or null to always create new menus
+         * @return fluent pattern
+         * @see MenuPool
+         */
+        public T pool(MenuPool pool) {
+            this.pool = pool;
+            return (T) this;
+        }
+
+        /**
+         * Internal helper method to take a menu with the configuration of
+         * this builder from its pool, or create a new menu if the builder
+         * has no pool or no menu is available.
+         *
+         * @param variant additional configuration of the built menu, or null
+         * @param factory function creating a new menu
+         * @return built menu
+         */
+        protected <M extends AbstractMenu> M fromPool(Object variant, Supplier<M> factory) {
+            Supplier<M> create = () -> {
+                M menu = factory.get();
+                if (layout != null) {
+                    menu.setLayout(layout);
+                }
+                return menu;
+            };
+            if (pool == null) {
+                return create.get();
+            }
+            MenuPool.Key key = new MenuPool.Key(getClass(), variant, dimensions, title, redraw, layout);
+            return pool.acquire(key, parent, create);
+        }
+
+        /**
+         * Sets the layout that slots of built menus are created from.
+         *
+         * @param layout slot layout, or null to create empty slots
+         * @return fluent pattern
+         * @throws IllegalArgumentException if the layout does not match the dimensions of the builder
+         * @see SlotLayout
+         */
+        public T layout(SlotLayout layout) {
+            if (layout != null && layout.getDimensions().getArea() != dimensions.getArea()) {
+                throw new IllegalArgumentException("layout does not match menu dimensions");
+            }
+            this.layout = layout;
+            return (T) this;
+        }
+
+        public SlotLayout getLayout() {
+            return layout;
+        }
+
         public Component getTitle() {
             return title;
         }
@@ -37,6 +37,8 @@ import de.spookly.canvas.Menu;
  */
 public class BoxMenu extends AbstractMenu {
 
+    private static final Dimension DIMENSIONS = Dimension.of(3, 3);
+
     protected BoxMenu(Component title, InventoryType type, Menu menu, boolean redraw) {
         super(title, type, menu, redraw);
     }
@@ -62,7 +64,7 @@ public class BoxMenu extends AbstractMenu {
 
     @Override
     public Dimension getDimensions() {
-        return new Dimension(3, 3);
+        return DIMENSIONS;
     }
 
     /**
@@ -73,13 +75,13 @@ public class BoxMenu extends AbstractMenu {
         private InventoryType type;
 
         Builder(InventoryType type) {
-            super(new Dimension(3, 3));
+            super(DIMENSIONS);
             this.type = type;
         }
 
         @Override
         public BoxMenu build() {
-            return new BoxMenu(getTitle(), type, getParent(), isRedraw());
+            return fromPool(type, () -> new BoxMenu(getTitle(), type, getParent(), isRedraw()));
         }
     }
 }
@@ -51,7 +51,7 @@ public class ChestMenu extends AbstractMenu {
 
     @Override
     public Menu.Dimension getDimensions() {
-        return new Menu.Dimension(inventorySlots / 9, 9);
+        return Menu.Dimension.of(inventorySlots / 9, 9);
     }
 
     /**
@@ -60,12 +60,12 @@ public class ChestMenu extends AbstractMenu {
     public static class Builder extends AbstractMenu.Builder<Builder> {
 
         Builder(int rows) {
-            super(new Menu.Dimension(rows, 9));
+            super(Menu.Dimension.of(rows, 9));
         }
 
         @Override
         public ChestMenu build() {
-            return new ChestMenu(getTitle(), getDimensions().getArea(), getParent(), isRedraw());
+            return fromPool(null, () -> new ChestMenu(getTitle(), getDimensions().getArea(), getParent(), isRedraw()));
         }
     }
 }
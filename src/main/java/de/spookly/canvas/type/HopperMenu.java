@@ -32,6 +32,8 @@ import de.spookly.canvas.Menu;
  */
 public class HopperMenu extends AbstractMenu {
 
+    private static final Dimension DIMENSIONS = Dimension.of(1, 5);
+
     protected HopperMenu(Component title, Menu menu, boolean redraw) {
         super(title, InventoryType.HOPPER, menu, redraw);
     }
@@ -45,7 +47,7 @@ public class HopperMenu extends AbstractMenu {
 
     @Override
     public Dimension getDimensions() {
-        return new Dimension(1, 5);
+        return DIMENSIONS;
     }
 
     /**
@@ -54,12 +56,12 @@ public class HopperMenu extends AbstractMenu {
     public static class Builder extends AbstractMenu.Builder<Builder> {
 
         public Builder() {
-            super(new Dimension(1, 5));
+            super(DIMENSIONS);
         }
 
         @Override
         public HopperMenu build() {
-            return new HopperMenu(getTitle(), getParent(), isRedraw());
+            return fromPool(null, () -> new HopperMenu(getTitle(), getParent(), isRedraw()));
         }
     }
 }
@@ -26,15 +26,21 @@ package de.spookly.canvas.type;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
 import de.spookly.canvas.Menu;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 public class MenuHolder implements InventoryHolder {
 
+    // Marker for slots whose inventory contents are unknown to the holder
+    private static final Object STALE = new Object();
+
     private Player viewer;
     private Menu menu;
     private Inventory inventory;
+    private Object[] rendered;
 
     MenuHolder(Player viewer, Menu menu) {
         this(viewer, menu, null);
@@ -67,5 +73,50 @@ public class MenuHolder implements InventoryHolder {
     void setInventory(Inventory inventory) {
         Objects.requireNonNull(inventory);
         this.inventory = inventory;
+        this.rendered = new Object[inventory.getSize()];
+    }
+
+    /**
+     * Writes an item to the inventory of this holder if it differs from the
+     * item that was last rendered in the slot.
+     *
+     * @param index slot index
+     * @param item item to render
+     * @return true if the inventory was modified, false otherwise
+     */
+    public boolean render(int index, ItemStack item) {
+        if (Objects.equals(rendered[index], item)) {
+            return false;
+        }
+        inventory.setItem(index, item);
+        rendered[index] = item == null ? null : item.clone();
+        return true;
+    }
+
+    /**
+     * Forgets the last rendered item of a slot, forcing the next render
+     * of the slot to be written to the inventory.
+     *
+     * <p>This must be called whenever the contents of the inventory
+     * change without going through {@link #render(int, ItemStack)},
+     * for instance when a player is allowed to take or place items.
+     *
+     * @param index slot index
+     */
+    public void invalidate(int index) {
+        if (rendered != null && index >= 0 && index < rendered.length) {
+            rendered[index] = STALE;
+        }
+    }
+
+    /**
+     * Forgets the last rendered item of every slot.
+     *
+     * @see #invalidate(int)
+     */
+    public void invalidate() {
+        if (rendered != null) {
+            Arrays.fill(rendered, STALE);
+        }
     }
 }
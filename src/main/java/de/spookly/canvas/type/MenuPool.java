@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.type;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import de.spookly.canvas.Menu;
+import de.spookly.canvas.slot.SlotLayout;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * A pool of menus that can be reused by builders.
+ *
+ * <p>Builders that have a pool assigned with {@link AbstractMenu.Builder#pool(MenuPool)}
+ * take menus from the pool that were built with the same configuration,
+ * instead of creating new ones. Menus are returned to the pool explicitly
+ * with {@link #release(Menu)}, which resets them to the state they had
+ * when built.
+ *
+ * <p>Menus are never returned automatically once their viewers close
+ * them, since they may still be referenced elsewhere, for example as a
+ * page of a paginated menu or as the parent of another menu. The owner
+ * of a menu releases it once nothing refers to it anymore.
+ *
+ * <p>Note: Pools are not thread-safe and should only be used on the main
+ * server thread.
+ */
+public class MenuPool {
+
+    private final int maxIdleMenus;
+    private final Map<Key, ArrayDeque<AbstractMenu>> idleMenus = new HashMap<>();
+    private long created;
+    private long reused;
+
+    /**
+     * Creates a pool keeping up to 16 idle menus per builder configuration.
+     */
+    public MenuPool() {
+        this(16);
+    }
+
+    /**
+     * Creates a pool keeping a maximum amount of idle menus per builder
+     * configuration.
+     *
+     * @param maxIdleMenus maximum amount of idle menus per configuration
+     * @throws IllegalArgumentException if the maximum is less than 1
+     */
+    public MenuPool(int maxIdleMenus) {
+        if (maxIdleMenus < 1) {
+            throw new IllegalArgumentException("maxIdleMenus must be at least 1");
+        }
+        this.maxIdleMenus = maxIdleMenus;
+    }
+
+    /**
+     * Returns the amount of menus that were created because no idle
+     * menu was available.
+     *
+     * @return created menu count
+     */
+    public long getCreatedMenus() {
+        return created;
+    }
+
+    /**
+     * Returns the amount of menus that were reused from the pool.
+     *
+     * @return reused menu count
+     */
+    public long getReusedMenus() {
+        return reused;
+    }
+
+    /**
+     * Returns the amount of menus that are currently idle in the pool.
+     *
+     * @return idle menu count
+     */
+    public int getIdleMenus() {
+        int idle = 0;
+        for (ArrayDeque<AbstractMenu> menus : idleMenus.values()) {
+            idle += menus.size();
+        }
+        return idle;
+    }
+
+    /**
+     * Removes all idle menus from the pool.
+     */
+    public void clear() {
+        idleMenus.clear();
+    }
+
+    /**
+     * Returns a menu built from this pool to the pool, so that it is reset
+     * and handed out by a later build. The menu must not be used anymore
+     * afterwards.
+     *
+     * @param menu menu to release
+     * @throws IllegalArgumentException if the menu was not built from this pool
+     * @throws IllegalStateException if the menu is still being viewed
+     */
+    public void release(Menu menu) {
+        if (!(menu instanceof AbstractMenu) || ((AbstractMenu) menu).getPool() != this) {
+            throw new IllegalArgumentException("menu was not built from this pool");
+        }
+        if (!menu.getViewers().isEmpty()) {
+            throw new IllegalStateException("menu is still being viewed");
+        }
+
+        AbstractMenu pooled = (AbstractMenu) menu;
+        ArrayDeque<AbstractMenu> menus = idleMenus.computeIfAbsent(pooled.getPoolKey(), k -> new ArrayDeque<>());
+        if (menus.size() < maxIdleMenus && !menus.contains(pooled)) {
+            pooled.reset();
+            // Idle menus must not keep their parent alive
+            pooled.setParent(null);
+            menus.push(pooled);
+        }
+    }
+
+    /* Takes an idle menu built with a configuration from the pool, or creates a new one */
+    @SuppressWarnings("unchecked")
+    <M extends AbstractMenu> M acquire(Key key, Menu parent, Supplier<M> factory) {
+        ArrayDeque<AbstractMenu> menus = idleMenus.get(key);
+        AbstractMenu menu = menus == null ? null : menus.poll();
+        if (menu != null) {
+            reused++;
+            menu.setParent(parent);
+            return (M) menu;
+        }
+
+        created++;
+        M built = factory.get();
+        built.setPool(this, key);
+        return built;
+    }
+
+    /* The configuration of the builder that built a menu, the parent is assigned separately */
+    record Key(Class<?> builder, Object variant, Menu.Dimension dimensions, Component title, boolean redraw,
+               SlotLayout layout) {
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.type;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Coalesces update requests of menus and performs them once per server tick.
+ *
+ * <p>Menus requesting an update through {@link de.spookly.canvas.Menu#requestUpdate()}
+ * are queued until the next tick, no matter how often they request it. Queued
+ * menus are updated in the order they were first queued. Each tick only spends
+ * a limited amount of time updating menus; menus that could not be updated
+ * within the budget remain queued for the following tick.
+ *
+ * <p>Ticks are scheduled through the plugin set with {@link #setPlugin(Plugin)},
+ * which is usually done when registering the {@link de.spookly.canvas.MenuFunctionListener}.
+ * Until a plugin is set, or while it is disabled, updates requested on the main
+ * server thread are performed right away, together with any queued updates.
+ * Updates requested on other threads remain queued until a plugin is set, an
+ * update is requested on the main server thread or {@link #flush()} is called.
+ */
+public final class MenuUpdateScheduler {
+
+    private static final MenuUpdateScheduler INSTANCE = new MenuUpdateScheduler();
+
+    private final Set<AbstractMenu> queued = new LinkedHashSet<>();
+    private volatile Plugin plugin;
+    private volatile long tickBudgetNanos = Duration.ofMillis(2).toNanos();
+    private boolean scheduled;
+    private long updates;
+    private long spilledTicks;
+
+    private MenuUpdateScheduler() {
+    }
+
+    /**
+     * Returns the scheduler that updates all menus.
+     *
+     * @return update scheduler
+     */
+    public static MenuUpdateScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the plugin whose scheduler performs queued updates on the next tick.
+     *
+     * @param plugin plugin, or null to perform updates right away
+     */
+    public void setPlugin(Plugin plugin) {
+        this.plugin = plugin;
+        boolean schedule;
+        synchronized (this) {
+            schedule = plugin != null && !queued.isEmpty() && !scheduled;
+        }
+        if (schedule) {
+            startTick();
+        }
+    }
+
+    /**
+     * Returns the plugin whose scheduler performs queued updates.
+     *
+     * @return plugin, or null if none is set
+     */
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Sets the maximum amount of time spent updating menus per tick. At
+     * least one menu is updated each tick, regardless of the budget.
+     *
+     * @param budget time budget per tick
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public void setTickBudget(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.tickBudgetNanos = budget.toNanos();
+    }
+
+    /**
+     * Returns the maximum amount of time spent updating menus per tick.
+     *
+     * @return time budget per tick
+     */
+    public Duration getTickBudget() {
+        return Duration.ofNanos(tickBudgetNanos);
+    }
+
+    /**
+     * Returns the amount of menus waiting to be updated.
+     *
+     * @return queued menu count
+     */
+    public synchronized int getQueuedMenus() {
+        return queued.size();
+    }
+
+    /**
+     * Returns the amount of menu updates performed by the scheduler.
+     *
+     * @return update count
+     */
+    public synchronized long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the amount of ticks that ran out of budget before all
+     * queued menus were updated.
+     *
+     * @return spilled tick count
+     */
+    public synchronized long getSpilledTicks() {
+        return spilledTicks;
+    }
+
+    /**
+     * Updates all queued menus right away, regardless of the tick budget.
+     */
+    public void flush() {
+        AbstractMenu menu;
+        while ((menu = poll()) != null) {
+            menu.performRequestedUpdates();
+        }
+    }
+
+    /* Queues a menu to be updated on the next tick */
+    void schedule(AbstractMenu menu) {
+        synchronized (this) {
+            queued.add(menu);
+            // Menus may already be queued without a tick, such as when they were
+            // queued off the main thread without a plugin, so only skip starting
+            // a tick if one is scheduled
+            if (scheduled) {
+                return;
+            }
+        }
+        startTick();
+    }
+
+    /* Removes a menu from the queue without updating it */
+    synchronized void unschedule(AbstractMenu menu) {
+        queued.remove(menu);
+    }
+
+    /* Schedules the next tick, or updates right away if there is no plugin to schedule it with */
+    private void startTick() {
+        Plugin plugin = this.plugin;
+        if (plugin == null || !plugin.isEnabled()) {
+            if (Bukkit.isPrimaryThread()) {
+                flush();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        Bukkit.getScheduler().runTask(plugin, this::tick);
+    }
+
+    /* Updates queued menus until the budget of the tick is spent */
+    private void tick() {
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        synchronized (this) {
+            scheduled = false;
+        }
+
+        AbstractMenu menu;
+        while ((menu = poll()) != null) {
+            menu.performRequestedUpdates();
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+
+        boolean spilled;
+        synchronized (this) {
+            spilled = !queued.isEmpty() && !scheduled;
+            if (spilled) {
+                spilledTicks++;
+            }
+        }
+        if (spilled) {
+            startTick();
+        }
+    }
+
+    /* Removes the menu that was queued first */
+    private synchronized AbstractMenu poll() {
+        Iterator<AbstractMenu> iterator = queued.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        AbstractMenu menu = iterator.next();
+        iterator.remove();
+        updates++;
+        return menu;
+    }
+}
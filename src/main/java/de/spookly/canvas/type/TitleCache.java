@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) Matthew Steglinski (SainttX) <matt@ipvp.org>
+ * Copyright (C) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package de.spookly.canvas.type;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.papermc.paper.adventure.PaperAdventure;
+import net.kyori.adventure.text.Component;
+
+/**
+ * A bounded cache of menu titles converted to vanilla components.
+ *
+ * <p>Titles are cached per component instance, as menus such as pages of
+ * a paginated menu commonly share the same title instances. Entries are
+ * evicted in least recently used order. Weak keys are not an option, as
+ * the converted components keep a reference to the original component.
+ */
+final class TitleCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<TitleKey, net.minecraft.network.chat.Component> CACHE =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TitleKey, net.minecraft.network.chat.Component> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private TitleCache() {
+    }
+
+    /**
+     * Returns the vanilla component of a title, converting it only if
+     * it is not cached yet.
+     *
+     * @param title title
+     * @return vanilla component
+     */
+    static net.minecraft.network.chat.Component asVanilla(Component title) {
+        TitleKey key = new TitleKey(title);
+        synchronized (CACHE) {
+            return CACHE.computeIfAbsent(key, k -> PaperAdventure.asVanilla(title));
+        }
+    }
+
+    /* Compares titles by identity, avoiding hashing and comparing of whole component trees */
+    private record TitleKey(Component title) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TitleKey && ((TitleKey) o).title == title;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(title);
+        }
+    }
+}